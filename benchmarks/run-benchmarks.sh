@@ -0,0 +1,14 @@
+#!/bin/sh
+# Builds the service and the benchmark jar, then runs JMH and writes machine-readable results
+# to benchmarks/results/<git describe>.json. Extra arguments go to JMH, e.g. a benchmark regex.
+#
+#   benchmarks/run-benchmarks.sh SessionFanOut
+#   java -cp benchmarks/target/benchmarks.jar \
+#       com.realtime.events.realtimeEvents.benchmarks.BenchmarkComparison results/a.json results/b.json
+set -e
+cd "$(dirname "$0")/.."
+./mvnw -B -q install -DskipTests
+./mvnw -B -q -f benchmarks/pom.xml package
+mkdir -p benchmarks/results
+version=$(git describe --always --dirty 2>/dev/null || echo local)
+java -jar benchmarks/target/benchmarks.jar -rf json -rff "benchmarks/results/$version.json" "$@"
@@ -0,0 +1,72 @@
+package com.realtime.events.realtimeEvents.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files ({@code -rf json}) benchmark by benchmark and exits
+ * with status 1 if any score got worse by more than the threshold and by more than the
+ * combined error of both runs.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar \
+ *     com.realtime.events.realtimeEvents.benchmarks.BenchmarkComparison baseline.json candidate.json [thresholdPercent]
+ * </pre>
+ */
+public class BenchmarkComparison {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BenchmarkComparison <baseline.json> <candidate.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> candidate = read(new File(args[1]));
+
+        boolean regressed = false;
+        System.out.printf("%-60s %14s %14s %9s%n", "benchmark", "baseline", "candidate", "change");
+        for (Map.Entry<String, Score> entry : candidate.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            Score after = entry.getValue();
+            if (before == null) {
+                System.out.printf("%-60s %14s %14.3f %9s%n", entry.getKey(), "-", after.score(), "new");
+                continue;
+            }
+            // Positive change is always an improvement, whatever the mode
+            double change = (after.score() - before.score()) / before.score() * 100 * (after.higherIsBetter() ? 1 : -1);
+            boolean worse = -change > threshold && Math.abs(after.score() - before.score()) > before.error() + after.error();
+            regressed |= worse;
+            System.out.printf("%-60s %14.3f %14.3f %+8.1f%% %s%n", entry.getKey(), before.score(), after.score(), change,
+                    worse ? "REGRESSION" : "");
+        }
+        System.exit(regressed ? 1 : 0);
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            String benchmark = run.get("benchmark").asText();
+            StringBuilder key = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1));
+            JsonNode params = run.get("params");
+            if (params != null) {
+                Map<String, String> sorted = new TreeMap<>();
+                params.properties().forEach(param -> sorted.put(param.getKey(), param.getValue().asText()));
+                key.append(sorted);
+            }
+            JsonNode metric = run.get("primaryMetric");
+            double error = metric.get("scoreError").asDouble();
+            scores.put(key.toString(), new Score(metric.get("score").asDouble(), Double.isNaN(error) ? 0 : error,
+                    "thrpt".equals(run.get("mode").asText())));
+        }
+        return scores;
+    }
+
+    private record Score(double score, double error, boolean higherIsBetter) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.realtime.events.realtimeEvents.benchmarks;
+
+import com.realtime.events.realtimeEvents.scheduling.PollScheduler;
+import org.openjdk.jmh.annotations.*;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedule-then-cancel cost for one poll with N polls already pending, which is what every
+ * tracking pays when it is re-armed or stopped. Compares the original
+ * {@link ScheduledThreadPoolExecutor} (a binary heap), the {@link PollScheduler} timing wheel
+ * and Reactor's single-thread scheduler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class PollSchedulingBenchmark {
+
+    private static final Runnable NOOP = () -> { };
+    private static final long DELAY_MILLIS = 60_000;
+
+    @Param({"1000", "100000"})
+    public int pending;
+
+    private ScheduledThreadPoolExecutor executor;
+    private PollScheduler wheel;
+    private Scheduler reactorScheduler;
+
+    @Setup
+    public void setUp() {
+        executor = new ScheduledThreadPoolExecutor(10);
+        executor.setRemoveOnCancelPolicy(true);
+        wheel = new PollScheduler(Duration.ofMillis(100), 512);
+        reactorScheduler = Schedulers.newSingle("bench-poll");
+        for (int i = 0; i < pending; i++) {
+            long delay = DELAY_MILLIS + i;
+            executor.schedule(NOOP, delay, TimeUnit.MILLISECONDS);
+            wheel.schedule(NOOP, Duration.ofMillis(delay));
+            reactorScheduler.schedule(NOOP, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+        wheel.stop();
+        reactorScheduler.dispose();
+    }
+
+    @Benchmark
+    public boolean scheduledExecutor() {
+        ScheduledFuture<?> future = executor.schedule(NOOP, DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        return future.cancel(false);
+    }
+
+    @Benchmark
+    public boolean timingWheel() {
+        Disposable poll = wheel.schedule(NOOP, Duration.ofMillis(DELAY_MILLIS));
+        poll.dispose();
+        return poll.isDisposed();
+    }
+
+    @Benchmark
+    public boolean reactorSingle() {
+        Disposable poll = reactorScheduler.schedule(NOOP, DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        poll.dispose();
+        return poll.isDisposed();
+    }
+}
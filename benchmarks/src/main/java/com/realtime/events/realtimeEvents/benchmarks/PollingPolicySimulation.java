@@ -0,0 +1,108 @@
+package com.realtime.events.realtimeEvents.benchmarks;
+
+import com.realtime.events.realtimeEvents.polling.AdaptivePollingIntervalPolicy;
+import com.realtime.events.realtimeEvents.polling.FixedPollingIntervalPolicy;
+import com.realtime.events.realtimeEvents.polling.PollContext;
+import com.realtime.events.realtimeEvents.polling.PollingIntervalPolicy;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Replays a synthetic workload against each polling policy in virtual time and prints
+ * upstream calls per tracking against detection latency (how long after completion the
+ * terminal state was seen), the timeout rate, and the busiest 100 ms of upstream calls.
+ * <p>
+ * Trackings start in bursts of {@code burst} at the same instant (the thundering-herd
+ * case) and complete after a log-normally distributed time. Everything is seeded, so runs
+ * are reproducible.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar \
+ *     com.realtime.events.realtimeEvents.benchmarks.PollingPolicySimulation [trackings] [medianSeconds] [sigma] [burst]
+ * </pre>
+ */
+public class PollingPolicySimulation {
+
+    private static final long SEED = 7;
+
+    public static void main(String[] args) {
+        int trackings = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        double medianSeconds = args.length > 1 ? Double.parseDouble(args[1]) : 8;
+        double sigma = args.length > 2 ? Double.parseDouble(args[2]) : 0.5;
+        int burst = args.length > 3 ? Integer.parseInt(args[3]) : 500;
+
+        Map<String, Supplier<PollingIntervalPolicy>> policies = new LinkedHashMap<>();
+        policies.put("fixed 1,2,1,3,1,2", () -> new FixedPollingIntervalPolicy(seconds(1, 2, 1, 3, 1, 2)));
+        policies.put("fixed 2s x60", () -> new FixedPollingIntervalPolicy(seconds(IntStream.generate(() -> 2).limit(60).toArray())));
+        Random policyRandom = new Random(SEED);
+        policies.put("adaptive", () -> new AdaptivePollingIntervalPolicy(Duration.ofMillis(500), Duration.ofSeconds(10),
+                Duration.ofSeconds(120), 20, () -> policyRandom));
+
+        System.out.printf("trackings=%d median=%.1fs sigma=%.2f burst=%d%n%n", trackings, medianSeconds, sigma, burst);
+        System.out.printf("%-20s %12s %14s %14s %10s %16s%n",
+                "policy", "calls/track", "detect p50 ms", "detect p95 ms", "timeouts", "peak calls/100ms");
+        policies.forEach((name, policy) -> print(name, simulate(policy.get(), trackings, medianSeconds, sigma, burst)));
+    }
+
+    static Result simulate(PollingIntervalPolicy policy, int trackings, double medianSeconds, double sigma, int burst) {
+        Random workload = new Random(SEED);
+        long[] detectionLatencies = new long[trackings];
+        int detected = 0;
+        long calls = 0;
+        Map<Long, Integer> callsPerSlot = new HashMap<>();
+
+        for (int i = 0; i < trackings; i++) {
+            // Bursts start one minute apart, so earlier bursts have finished and taught the policy
+            long startMillis = (i / burst) * 60_000L;
+            long completesAfter = (long) (medianSeconds * 1000 * Math.exp(sigma * workload.nextGaussian()));
+
+            long elapsed = 0;
+            Duration previous = null;
+            for (int attempt = 0; ; attempt++) {
+                Duration delay = policy.nextDelay(new PollContext(attempt, Duration.ofMillis(elapsed), previous, null));
+                if (delay == null) {
+                    break; // TIMEOUT
+                }
+                elapsed += delay.toMillis();
+                previous = delay;
+                calls++;
+                callsPerSlot.merge((startMillis + elapsed) / 100, 1, Integer::sum);
+                if (elapsed >= completesAfter) {
+                    detectionLatencies[detected++] = elapsed - completesAfter;
+                    policy.recordTerminal(Duration.ofMillis(elapsed));
+                    break;
+                }
+            }
+        }
+
+        long[] latencies = Arrays.copyOf(detectionLatencies, detected);
+        Arrays.sort(latencies);
+        int peak = callsPerSlot.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        return new Result((double) calls / trackings, percentile(latencies, 0.50), percentile(latencies, 0.95),
+                (double) (trackings - detected) / trackings, peak);
+    }
+
+    private static long percentile(long[] sorted, double q) {
+        return sorted.length == 0 ? -1 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(q * sorted.length) - 1)];
+    }
+
+    private static List<Duration> seconds(int... values) {
+        return Arrays.stream(values).mapToObj(Duration::ofSeconds).toList();
+    }
+
+    private static void print(String name, Result result) {
+        System.out.printf("%-20s %12.2f %14d %14d %9.1f%% %16d%n", name, result.callsPerTracking(),
+                result.detectionP50Millis(), result.detectionP95Millis(), result.timeoutRate() * 100, result.peakCallsPer100Millis());
+    }
+
+    record Result(double callsPerTracking, long detectionP50Millis, long detectionP95Millis, double timeoutRate,
+                  int peakCallsPer100Millis) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.realtime.events.realtimeEvents.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
+import com.realtime.events.realtimeEvents.sessions.OverflowPolicy;
+import com.realtime.events.realtimeEvents.sessions.SseFrame;
+import com.realtime.events.realtimeEvents.sessions.SseFrameEncoder;
+import com.realtime.events.realtimeEvents.sessions.SseSession;
+import com.realtime.events.realtimeEvents.sessions.SseSessionFactory;
+import com.realtime.events.realtimeEvents.sessions.SseSessionRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.Disposable;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code sendToClient}: look a session up by id and hand it one event, from four threads
+ * at once against N connected sessions. {@code sessionRegistry} is the current
+ * {@link SseSession} path (replay ring, bounded outbox, per-session lock);
+ * {@code sinkMap} is the original {@code Map<String, Sinks.Many>} plus
+ * {@code tryEmitNext}, kept as the baseline. Under contention the baseline partly measures
+ * {@code FAIL_NON_SERIALIZED} returns, i.e. events the original code silently lost.
+ * <p>
+ * Every session has a subscriber with unbounded demand, so both paths measure delivery
+ * rather than buffering.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class SessionFanOutBenchmark {
+
+    @Param({"1", "1000", "10000"})
+    public int sessions;
+
+    private final InquiryApiResponse response = new InquiryApiResponse("IN_PROGRESS", "Process in progress", "t1");
+    private final SseFrame frame = new SseFrameEncoder(new ObjectMapper()).encode(response);
+    private final List<Disposable> subscriptions = new ArrayList<>();
+    private String[] sessionIds;
+    private SseSessionRegistry sessionRegistry;
+    private Map<String, Sinks.Many<ServerSentEvent<InquiryApiResponse>>> sinks;
+
+    @Setup
+    public void setUp() {
+        sessionIds = new String[sessions];
+        sessionRegistry = new SseSessionRegistry(new SseSessionFactory(64, 120, 32, OverflowPolicy.CONFLATE), 15, 45, 120);
+        sinks = new ConcurrentHashMap<>();
+        for (int i = 0; i < sessions; i++) {
+            String sessionId = "session-" + i;
+            sessionIds[i] = sessionId;
+            subscriptions.add(sessionRegistry.connect(sessionId).attach(-1).subscribe());
+            Sinks.Many<ServerSentEvent<InquiryApiResponse>> sink = Sinks.many().multicast().onBackpressureBuffer();
+            subscriptions.add(sink.asFlux().subscribe());
+            sinks.put(sessionId, sink);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        subscriptions.forEach(Disposable::dispose);
+        subscriptions.clear();
+    }
+
+    @Benchmark
+    public void sessionRegistry(Blackhole blackhole) {
+        SseSession session = sessionRegistry.get(randomSessionId());
+        if (session != null) {
+            blackhole.consume(session.emit(frame));
+        }
+    }
+
+    @Benchmark
+    public void sinkMap(Blackhole blackhole) {
+        Sinks.Many<ServerSentEvent<InquiryApiResponse>> sink = sinks.get(randomSessionId());
+        if (sink != null) {
+            blackhole.consume(sink.tryEmitNext(ServerSentEvent.builder(response).build()));
+        }
+    }
+
+    private String randomSessionId() {
+        return sessionIds[ThreadLocalRandom.current().nextInt(sessionIds.length)];
+    }
+}
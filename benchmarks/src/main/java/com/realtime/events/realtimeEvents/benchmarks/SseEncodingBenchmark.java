@@ -0,0 +1,117 @@
+package com.realtime.events.realtimeEvents.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.codec.ServerSentEventHttpMessageWriter;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of turning one {@code ServerSentEvent<InquiryApiResponse>} into bytes on the wire.
+ * {@code webFluxWriter} goes through {@link ServerSentEventHttpMessageWriter} with the
+ * Jackson encoder, as a WebFlux server would; {@code jacksonFrame} is the servlet-side
+ * equivalent: serialize the data with the ObjectMapper and frame it by hand.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SseEncodingBenchmark {
+
+    private static final ResolvableType EVENT_TYPE =
+            ResolvableType.forClassWithGenerics(ServerSentEvent.class, InquiryApiResponse.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ServerSentEventHttpMessageWriter writer = new ServerSentEventHttpMessageWriter(new Jackson2JsonEncoder(objectMapper));
+    private final ServerSentEvent<InquiryApiResponse> event = ServerSentEvent.builder(
+                    new InquiryApiResponse("IN_PROGRESS", "Process in progress", "0f8fad5b-d9cb-469f-a165-70867728950e"))
+            .id("42")
+            .build();
+
+    @Benchmark
+    public void webFluxWriter(Blackhole blackhole) {
+        CapturingOutputMessage message = new CapturingOutputMessage();
+        writer.write(Mono.just(event), EVENT_TYPE, MediaType.TEXT_EVENT_STREAM, message, Map.of()).block();
+        blackhole.consume(message.bytes);
+    }
+
+    @Benchmark
+    public byte[] jacksonFrame() throws Exception {
+        byte[] data = objectMapper.writeValueAsBytes(event.data());
+        byte[] id = ("id:" + event.id() + "\ndata:").getBytes(StandardCharsets.UTF_8);
+        byte[] frame = new byte[id.length + data.length + 2];
+        System.arraycopy(id, 0, frame, 0, id.length);
+        System.arraycopy(data, 0, frame, id.length, data.length);
+        frame[frame.length - 2] = '\n';
+        frame[frame.length - 1] = '\n';
+        return frame;
+    }
+
+    /**
+     * Collects what the writer produces and releases the buffers like the server would.
+     */
+    private static final class CapturingOutputMessage implements ReactiveHttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private int bytes;
+
+        @Override
+        public DataBufferFactory bufferFactory() {
+            return DefaultDataBufferFactory.sharedInstance;
+        }
+
+        @Override
+        public void beforeCommit(Supplier<? extends Mono<Void>> action) {
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return false;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return Flux.from(body)
+                    .doOnNext(buffer -> {
+                        bytes += buffer.readableByteCount();
+                        DataBufferUtils.release(buffer);
+                    })
+                    .then();
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return Flux.from(body).concatMap(this::writeWith).then();
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            return Mono.empty();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
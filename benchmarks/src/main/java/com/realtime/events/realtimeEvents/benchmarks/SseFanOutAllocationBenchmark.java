@@ -0,0 +1,127 @@
+package com.realtime.events.realtimeEvents.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
+import com.realtime.events.realtimeEvents.sessions.SseFrame;
+import com.realtime.events.realtimeEvents.sessions.SseFrameEncoder;
+import com.realtime.events.realtimeEvents.sessions.SseFrameHttpMessageConverter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One status fanned out to N subscribers over the Spring MVC write path: each subscriber
+ * gets its own {@code ServerSentEvent}, which is adapted to an {@link SseEmitter} event and
+ * written through the message converters, as {@code ReactiveTypeHandler} does.
+ * {@code encodePerSubscriber} carries the response and lets Jackson serialize it for every
+ * write (the original path); {@code encodeOnce} encodes an {@link SseFrame} up front and
+ * every write copies its bytes. Run with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm}, the bytes allocated per fan-out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SseFanOutAllocationBenchmark {
+
+    @Param({"1", "1000"})
+    public int subscribers;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SseFrameEncoder frameEncoder = new SseFrameEncoder(objectMapper);
+    private final List<HttpMessageConverter<?>> converters = List.of(
+            new SseFrameHttpMessageConverter(),
+            new StringHttpMessageConverter(StandardCharsets.UTF_8),
+            new MappingJackson2HttpMessageConverter(objectMapper));
+    private final InquiryApiResponse response =
+            new InquiryApiResponse("IN_PROGRESS", "Process in progress", "0f8fad5b-d9cb-469f-a165-70867728950e");
+    private final DiscardingOutputMessage output = new DiscardingOutputMessage();
+
+    @Benchmark
+    public long encodePerSubscriber() throws IOException {
+        for (int i = 0; i < subscribers; i++) {
+            write(ServerSentEvent.builder(response).id(Long.toString(i)).build());
+        }
+        return output.body.count;
+    }
+
+    @Benchmark
+    public long encodeOnce() throws IOException {
+        SseFrame frame = frameEncoder.encode(response);
+        for (int i = 0; i < subscribers; i++) {
+            write(ServerSentEvent.builder(frame).id(Long.toString(i)).build());
+        }
+        return output.body.count;
+    }
+
+    private void write(ServerSentEvent<?> event) throws IOException {
+        for (SseEmitter.DataWithMediaType part : SseEmitter.event().id(event.id()).data(event.data()).build()) {
+            write(part.getData(), part.getMediaType());
+        }
+    }
+
+    // Same selection as ResponseBodyEmitterReturnValueHandler: the first converter that can write the part
+    @SuppressWarnings("unchecked")
+    private void write(Object data, MediaType mediaType) throws IOException {
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter.canWrite(data.getClass(), mediaType)) {
+                ((HttpMessageConverter<Object>) converter).write(data, mediaType, output);
+                return;
+            }
+        }
+        throw new IllegalStateException("No converter for " + data.getClass());
+    }
+
+    /**
+     * A committed SSE response: the content type is already set, so converters leave the
+     * headers alone, and the body only counts bytes.
+     */
+    private static final class DiscardingOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final CountingOutputStream body = new CountingOutputStream();
+
+        DiscardingOutputMessage() {
+            headers.setContentType(MediaType.TEXT_EVENT_STREAM);
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
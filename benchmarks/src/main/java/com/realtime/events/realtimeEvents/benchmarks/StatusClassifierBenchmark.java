@@ -0,0 +1,100 @@
+package com.realtime.events.realtimeEvents.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.status.ContainsStatusClassifier;
+import com.realtime.events.realtimeEvents.status.JsonFieldStatusClassifier;
+import com.realtime.events.realtimeEvents.status.StatusClassification;
+import com.realtime.events.realtimeEvents.status.StatusClassifier;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classifies the same in-progress status document with the original String.contains scan
+ * and with the streaming JSON field classifier. The body arrives in 8 KB chunks like it
+ * does from Reactor Netty. The large payloads carry a long item list with the status
+ * either after it (both approaches must read everything) or before it (the streaming
+ * classifier stops parsing once it has the field).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatusClassifierBenchmark {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    @Param({"small", "large", "large-status-first"})
+    public String payload;
+
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private StatusClassifier contains;
+    private StatusClassifier jsonField;
+    private List<byte[]> chunks;
+
+    @Setup
+    public void setUp() {
+        contains = new ContainsStatusClassifier();
+        jsonField = new JsonFieldStatusClassifier(new ObjectMapper().getFactory(), "status",
+                Map.of("COMPLETED", "COMPLETED", "FAILED", "FAILED", "REJECTED", "REJECTED"));
+        String document = switch (payload) {
+            case "small" -> document(0, false);
+            case "large-status-first" -> document(500, true);
+            default -> document(500, false);
+        };
+        chunks = split(document.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public StatusClassification stringContains() {
+        return contains.classify(body()).block();
+    }
+
+    @Benchmark
+    public StatusClassification streamingJsonField() {
+        return jsonField.classify(body()).block();
+    }
+
+    private Flux<DataBuffer> body() {
+        return Flux.fromIterable(chunks).map(bufferFactory::wrap);
+    }
+
+    static String document(int items, boolean statusFirst) {
+        StringBuilder json = new StringBuilder("{\"trackingId\":\"trk-000123\",\"userId\":\"user-42\",");
+        if (statusFirst) {
+            json.append("\"status\":\"PROCESSING\",");
+        }
+        json.append("\"items\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"sku\":\"SKU-").append(i).append("\",\"quantity\":").append(i % 7)
+                    .append(",\"note\":\"line item ").append(i).append(" awaiting review\"}");
+        }
+        json.append("],\"progress\":42");
+        if (!statusFirst) {
+            json.append(",\"status\":\"PROCESSING\"");
+        }
+        return json.append('}').toString();
+    }
+
+    private static List<byte[]> split(byte[] bytes) {
+        List<byte[]> result = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += CHUNK_SIZE) {
+            byte[] chunk = new byte[Math.min(CHUNK_SIZE, bytes.length - offset)];
+            System.arraycopy(bytes, offset, chunk, 0, chunk.length);
+            result.add(chunk);
+        }
+        return result;
+    }
+}
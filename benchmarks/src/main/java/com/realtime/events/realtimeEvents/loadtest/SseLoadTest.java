@@ -0,0 +1,390 @@
+package com.realtime.events.realtimeEvents.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.RealtimeEventsApplication;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.retry.Retry;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Boots the service in-process against {@link StubUpstreamServer}, opens {@code clients} SSE
+ * connections, starts one tracking per connection and waits for every terminal event.
+ * Runs once per service implementation ({@code realtime.service=v0|v1}) and execution mode
+ * ({@code realtime.execution-mode=servlet|virtual|reactive}) and prints one report row per run:
+ * <ul>
+ *     <li>peak open SSE connections, how long it took to open them and failed connects (connection capacity)</li>
+ *     <li>start POST to ACK event, and stub completion to COMPLETED event (end-to-end latency)</li>
+ *     <li>status calls per second seen by the stub (upstream QPS)</li>
+ *     <li>peak heap and heap after GC with every connection open, peak JVM threads</li>
+ *     <li>open connections per GB of retained heap, from heap after GC with the connections
+ *     open minus heap after GC before the first one</li>
+ * </ul>
+ * Clients and service share the JVM, so heap and thread figures include the client side;
+ * compare runs with each other rather than reading them as absolute sizing.
+ * {@code --mode=all} runs servlet, reactive and, on Java 21 or newer, virtual. Streams the
+ * server ends before a terminal event (async request timeout) are resumed with
+ * {@code Last-Event-ID} like a browser would.
+ * <pre>
+ * java -Xmx4g -cp benchmarks/target/benchmarks.jar com.realtime.events.realtimeEvents.loadtest.SseLoadTest \
+ *     --clients=20000 --service=both --mode=all --median-completion-ms=3000 --error-rate=0.01 \
+ *     --app.polling.policy=adaptive
+ * </pre>
+ * Options prefixed with {@code --app.} are passed to the service as Spring properties.
+ */
+public class SseLoadTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final List<String> TERMINAL = List.of("COMPLETED", "FAILED", "REJECTED", "TIMEOUT", "ERROR");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        Map<String, String> appProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            if (pair[0].startsWith("app.")) {
+                appProperties.put(pair[0].substring(4), pair.length > 1 ? pair[1] : "true");
+            } else {
+                options.put(pair[0], pair.length > 1 ? pair[1] : "true");
+            }
+        }
+
+        int clients = Integer.parseInt(options.getOrDefault("clients", "2000"));
+        int connectConcurrency = Integer.parseInt(options.getOrDefault("connect-concurrency", "256"));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout-seconds", "180")));
+        StubUpstreamServer.Settings stub = new StubUpstreamServer.Settings(
+                Duration.ofMillis(Long.parseLong(options.getOrDefault("min-latency-ms", "20"))),
+                Duration.ofMillis(Long.parseLong(options.getOrDefault("max-latency-ms", "80"))),
+                Double.parseDouble(options.getOrDefault("error-rate", "0")),
+                Duration.ofMillis(Long.parseLong(options.getOrDefault("median-completion-ms", "3000"))),
+                Double.parseDouble(options.getOrDefault("completion-sigma", "0.5")));
+        String service = options.getOrDefault("service", "both");
+        List<String> services = "both".equals(service) ? List.of("v0", "v1") : List.of(service);
+        String mode = options.getOrDefault("mode", "servlet");
+        List<String> modes = !"all".equals(mode) ? List.of(mode)
+                : Runtime.version().feature() >= 21 ? List.of("servlet", "virtual", "reactive") : List.of("servlet", "reactive");
+
+        List<Report> reports = new ArrayList<>();
+        for (String implementation : services) {
+            for (String executionMode : modes) {
+                reports.add(new SseLoadTest(implementation, executionMode, clients, connectConcurrency, timeout, stub,
+                        appProperties).run());
+                System.gc();
+            }
+        }
+
+        System.out.printf("%nclients=%d latency=%s..%s errorRate=%.3f medianCompletion=%s sigma=%.2f%n%n", clients,
+                stub.minLatency(), stub.maxLatency(), stub.errorRate(), stub.medianCompletion(), stub.completionSigma());
+        reports.forEach(Report::print);
+    }
+
+    private final String service;
+    private final String mode;
+    private final int clients;
+    private final int connectConcurrency;
+    private final Duration timeout;
+    private final StubUpstreamServer.Settings stubSettings;
+    private final Map<String, String> appProperties;
+
+    private final AtomicInteger open = new AtomicInteger();
+    private final AtomicInteger peakOpen = new AtomicInteger();
+    private final LongAdder connectFailures = new LongAdder();
+    private final LongAdder startFailures = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final Queue<Long> ackLatencies = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> completionLatencies = new ConcurrentLinkedQueue<>();
+    private final Queue<Disposable> connections = new ConcurrentLinkedQueue<>();
+    private CountDownLatch finished;
+    private StubUpstreamServer stub;
+    private HttpClient sseClient;
+    private HttpClient apiClient;
+
+    SseLoadTest(String service, String mode, int clients, int connectConcurrency, Duration timeout,
+                StubUpstreamServer.Settings stubSettings, Map<String, String> appProperties) {
+        this.service = service;
+        this.mode = mode;
+        this.clients = clients;
+        this.connectConcurrency = connectConcurrency;
+        this.timeout = timeout;
+        this.stubSettings = stubSettings;
+        this.appProperties = appProperties;
+    }
+
+    Report run() throws InterruptedException {
+        finished = new CountDownLatch(clients);
+        stub = new StubUpstreamServer(stubSettings);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(RealtimeEventsApplication.class)
+                .run(applicationArgs());
+        ConnectionProvider apiConnections = ConnectionProvider.builder("load-api")
+                .maxConnections(connectConcurrency)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            // One connection per SSE client; the default pool would cap them at 500
+            sseClient = HttpClient.create(ConnectionProvider.newConnection()).baseUrl(baseUrl);
+            apiClient = HttpClient.create(apiConnections).baseUrl(baseUrl)
+                    .headers(headers -> headers.add(HttpHeaderNames.CONTENT_TYPE, "application/json"));
+
+            ResourceSampler sampler = new ResourceSampler();
+            long idleHeap = sampler.heapAfterGc();
+            Disposable sampling = Flux.interval(Duration.ofMillis(250)).subscribe(tick -> {
+                sampler.sample();
+                if (tick % 20 == 0) {
+                    System.err.printf("[%s/%s] open=%d finished=%d/%d%n", service, mode, open.get(), clients - finished.getCount(), clients);
+                }
+            });
+            long startedAt = System.nanoTime();
+
+            boolean completed;
+            double connectSeconds = -1;
+            try {
+                Flux.range(0, clients)
+                        .flatMap(i -> openClient(new ClientState("session-" + i, "tracking-" + i)), connectConcurrency)
+                        .then()
+                        .block(timeout);
+                connectSeconds = (System.nanoTime() - startedAt) / 1e9;
+                long remaining = timeout.toNanos() - (System.nanoTime() - startedAt);
+                completed = finished.await(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+            } catch (IllegalStateException e) {
+                completed = false; // block() timed out while clients were still connecting
+            }
+            double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+
+            sampler.sample();
+            long heapAfterGc = sampler.heapAfterGc();
+            sampling.dispose();
+            return new Report(service, mode, clients, peakOpen.get(), connectFailures.sum(), startFailures.sum(), reconnects.sum(),
+                    completed, snapshot(outcomes), sorted(ackLatencies), sorted(completionLatencies),
+                    stub.getStatusCalls() / elapsedSeconds, stub.getErrorCount(), sampler.peakHeap, idleHeap, heapAfterGc,
+                    sampler.peakThreads, connectSeconds, elapsedSeconds);
+        } finally {
+            connections.forEach(Disposable::dispose);
+            apiConnections.dispose();
+            context.close();
+            stub.close();
+        }
+    }
+
+    private String[] applicationArgs() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        properties.put("server.tomcat.max-connections", "200000");
+        properties.put("realtime.service", service);
+        properties.put("realtime.execution-mode", mode);
+        // A fresh tracking store per run; the file store would resume the previous run's trackings
+        properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest-" + service + "-" + mode);
+        properties.put("external.api.baseUrl", stub.baseUrl());
+        properties.put("external.api.start-uri", "/start");
+        properties.put("external.api.status-uri", "/status/{trackingId}");
+        properties.put("external.api.batch-status-uri", "/status/batch");
+        properties.putAll(appProperties);
+        return properties.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new);
+    }
+
+    private Mono<Void> openClient(ClientState client) {
+        return connect(client).then(Mono.defer(() -> start(client)));
+    }
+
+    /**
+     * Completes once the response headers arrived, i.e. the server registered the session.
+     */
+    private Mono<Void> connect(ClientState client) {
+        return Mono.create(connected -> connections.add(sseClient
+                .headers(headers -> {
+                    if (client.lastEventId != null) {
+                        headers.add("Last-Event-ID", client.lastEventId);
+                    }
+                })
+                .get()
+                .uri("/sse/connect/" + client.sessionId)
+                .response((response, body) -> {
+                    if (response.status().code() != 200) {
+                        return Mono.error(new IllegalStateException("connect returned " + response.status()));
+                    }
+                    peakOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+                    connected.success();
+                    return body.asString().doOnNext(client::onChunk).doFinally(signal -> open.decrementAndGet());
+                })
+                .subscribe(chunk -> { }, error -> {
+                    connectFailures.increment();
+                    connected.error(error);
+                    client.finish("CONNECT_FAILED");
+                }, () -> {
+                    if (!client.done) {
+                        reconnects.increment();
+                        connect(client).subscribe(null, error -> { });
+                    }
+                })))
+                .onErrorResume(error -> Mono.empty())
+                .then();
+    }
+
+    private Mono<Void> start(ClientState client) {
+        if (client.done) {
+            return Mono.empty();
+        }
+        // One user per client, like real traffic, so the per-user start rate limit does not throttle the run
+        String body = "{\"trackingId\":\"" + client.trackingId + "\",\"userId\":\"user-" + client.sessionId + "\"}";
+        client.startSentAt = System.nanoTime();
+        return apiClient.post()
+                .uri("/sse/start/" + client.sessionId)
+                .send(ByteBufFlux.fromString(Mono.just(body)))
+                .responseSingle((response, content) -> response.status().code() == 200
+                        ? Mono.just(response.status().code())
+                        : Mono.error(new IllegalStateException("start returned " + response.status())))
+                .retryWhen(Retry.backoff(5, Duration.ofMillis(20)))
+                .doOnError(error -> {
+                    startFailures.increment();
+                    client.finish("START_FAILED");
+                })
+                .onErrorResume(error -> Mono.empty())
+                .then();
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> counters) {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((key, value) -> values.put(key, value.sum()));
+        return values;
+    }
+
+    private static long[] sorted(Queue<Long> values) {
+        long[] array = values.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(array);
+        return array;
+    }
+
+    /**
+     * Per-connection SSE parsing; chunks arrive on one event loop so no locking is needed.
+     */
+    private final class ClientState {
+
+        private final String sessionId;
+        private final String trackingId;
+        private final StringBuilder pending = new StringBuilder();
+        private volatile String lastEventId;
+        private volatile long startSentAt;
+        private volatile boolean done;
+
+        ClientState(String sessionId, String trackingId) {
+            this.sessionId = sessionId;
+            this.trackingId = trackingId;
+        }
+
+        void onChunk(String chunk) {
+            pending.append(chunk);
+            int newline;
+            while ((newline = pending.indexOf("\n")) >= 0) {
+                String line = pending.substring(0, newline).trim();
+                pending.delete(0, newline + 1);
+                if (line.startsWith("id:")) {
+                    lastEventId = line.substring(3).trim();
+                } else if (line.startsWith("data:")) {
+                    onEvent(line.substring(5).trim());
+                }
+            }
+        }
+
+        private void onEvent(String data) {
+            try {
+                JsonNode event = OBJECT_MAPPER.readTree(data);
+                String status = event.path("status").asText();
+                if ("ACK".equals(status) && startSentAt != 0) {
+                    ackLatencies.add(System.nanoTime() - startSentAt);
+                } else if (TERMINAL.contains(status)) {
+                    Long completesAt = stub.completesAtNanos(trackingId);
+                    if ("COMPLETED".equals(status) && completesAt != null) {
+                        completionLatencies.add(System.nanoTime() - completesAt);
+                    }
+                    finish(status);
+                }
+            } catch (Exception e) {
+                finish("UNPARSEABLE");
+            }
+        }
+
+        synchronized void finish(String outcome) {
+            if (!done) {
+                done = true;
+                outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+                finished.countDown();
+            }
+        }
+    }
+
+    private static final class ResourceSampler {
+
+        private long peakHeap;
+        private int peakThreads;
+
+        synchronized void sample() {
+            peakHeap = Math.max(peakHeap, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+            peakThreads = Math.max(peakThreads, ManagementFactory.getThreadMXBean().getThreadCount());
+        }
+
+        long heapAfterGc() {
+            System.gc();
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+    }
+
+    record Report(String service, String mode, int clients, int peakOpen, long connectFailures, long startFailures, long reconnects,
+                  boolean completed, Map<String, Long> outcomes, long[] ackLatencies, long[] completionLatencies,
+                  double upstreamQps, long upstreamErrors, long peakHeap, long idleHeap, long heapAfterGc, int peakThreads,
+                  double connectSeconds, double elapsedSeconds) {
+
+        void print() {
+            System.out.printf("service=%s mode=%s%s%n", service, mode, completed ? "" : "  (timed out waiting for terminal events)");
+            System.out.printf("  connections  peak open %d of %d in %.1fs, connect failures %d, start failures %d, resumed %d%n",
+                    peakOpen, clients, connectSeconds, connectFailures, startFailures, reconnects);
+            System.out.printf("  outcomes     %s in %.1fs%n", outcomes, elapsedSeconds);
+            System.out.printf("  start->ACK   p50 %s  p95 %s  p99 %s%n",
+                    millis(ackLatencies, 0.50), millis(ackLatencies, 0.95), millis(ackLatencies, 0.99));
+            System.out.printf("  done->event  p50 %s  p95 %s  p99 %s%n",
+                    millis(completionLatencies, 0.50), millis(completionLatencies, 0.95), millis(completionLatencies, 0.99));
+            System.out.printf("  upstream     %.0f status calls/s, %d injected errors%n", upstreamQps, upstreamErrors);
+            System.out.printf("  jvm          peak heap %d MB, heap after GC %d MB, peak threads %d%n",
+                    peakHeap >> 20, heapAfterGc >> 20, peakThreads);
+            System.out.printf("  density      %s connections per GB of heap%n%n", connectionsPerGb());
+        }
+
+        private String connectionsPerGb() {
+            long retained = heapAfterGc - idleHeap;
+            return peakOpen == 0 || retained <= 0 ? "-" : String.format("%.0f", peakOpen * (double) (1L << 30) / retained);
+        }
+
+        private static String millis(long[] sortedNanos, double quantile) {
+            if (sortedNanos.length == 0) {
+                return "-";
+            }
+            int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(quantile * sortedNanos.length) - 1);
+            return String.format("%.1fms", sortedNanos[Math.max(index, 0)] / 1e6);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.realtime.events.realtimeEvents.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Netty stand-in for the start and status APIs.
+ * <ul>
+ *     <li>{@code POST /start} registers the trackingId and draws its completion time</li>
+ *     <li>{@code GET /status/{trackingId}} answers IN_PROGRESS until then, COMPLETED after</li>
+ *     <li>{@code POST /status/batch} does the same for {@code {"trackingIds": [...]}}</li>
+ * </ul>
+ * Every call waits a uniformly drawn latency and fails with 500 at the configured error
+ * rate. Completion times are log-normal around the configured median.
+ */
+public class StubUpstreamServer implements AutoCloseable {
+
+    public record Settings(Duration minLatency, Duration maxLatency, double errorRate,
+                           Duration medianCompletion, double completionSigma) {
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Settings settings;
+    private final Map<String, Long> completesAtNanos = new ConcurrentHashMap<>();
+    private final LongAdder startCalls = new LongAdder();
+    private final LongAdder statusCalls = new LongAdder();
+    private final LongAdder batchCalls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final DisposableServer server;
+
+    public StubUpstreamServer(Settings settings) {
+        this.settings = settings;
+        this.server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes
+                        .post("/start", (request, response) -> request.receive().aggregate().asString()
+                                .flatMap(body -> delayed(response, () -> start(body), startCalls))
+                                .then())
+                        .get("/status/{trackingId}", (request, response) ->
+                                delayed(response, () -> status(request.param("trackingId")).toString(), statusCalls))
+                        .post("/status/batch", (request, response) -> request.receive().aggregate().asString()
+                                .flatMap(body -> delayed(response, () -> batch(body), batchCalls))
+                                .then()))
+                .bindNow();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.port();
+    }
+
+    /**
+     * @return when the process became (or becomes) complete, in {@link System#nanoTime()} terms
+     */
+    public Long completesAtNanos(String trackingId) {
+        return completesAtNanos.get(trackingId);
+    }
+
+    public long getStartCalls() {
+        return startCalls.sum();
+    }
+
+    public long getStatusCalls() {
+        return statusCalls.sum() + batchCalls.sum();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    private Mono<Void> delayed(HttpServerResponse response, Supplier<String> body, LongAdder calls) {
+        calls.increment();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long min = settings.minLatency().toMillis();
+        long max = settings.maxLatency().toMillis();
+        Duration latency = Duration.ofMillis(max > min ? random.nextLong(min, max + 1) : min);
+        if (random.nextDouble() < settings.errorRate()) {
+            errors.increment();
+            return Mono.delay(latency).then(response.status(HttpResponseStatus.INTERNAL_SERVER_ERROR).send());
+        }
+        return Mono.delay(latency)
+                .then(Mono.defer(() -> response.header("Content-Type", "application/json")
+                        .sendString(Mono.fromSupplier(body))
+                        .then()));
+    }
+
+    private String start(String body) {
+        try {
+            String trackingId = objectMapper.readTree(body).get("trackingId").asText();
+            long completesAfter = (long) (settings.medianCompletion().toNanos()
+                    * Math.exp(settings.completionSigma() * ThreadLocalRandom.current().nextGaussian()));
+            completesAtNanos.putIfAbsent(trackingId, System.nanoTime() + completesAfter);
+            return objectMapper.createObjectNode().put("trackingId", trackingId).put("status", "ACCEPTED").toString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String batch(String body) {
+        try {
+            ObjectNode result = objectMapper.createObjectNode();
+            for (JsonNode id : objectMapper.readTree(body).get("trackingIds")) {
+                result.set(id.asText(), status(id.asText()));
+            }
+            return result.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ObjectNode status(String trackingId) {
+        Long completesAt = completesAtNanos.get(trackingId);
+        boolean completed = completesAt != null && System.nanoTime() >= completesAt;
+        return objectMapper.createObjectNode()
+                .put("trackingId", trackingId)
+                .put("status", completed ? "COMPLETED" : "IN_PROGRESS");
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
@@ -0,0 +1,166 @@
+package com.realtime.events.realtimeEvents.admission;
+
+import com.realtime.events.realtimeEvents.tracking.TrackingRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides up front whether this node takes on more work, so an overloaded node turns
+ * requests away in microseconds instead of letting every session slow down.
+ * <ul>
+ *   <li>{@code /sse/start} is rate limited per userId (429) and new tracking chains are
+ *   capped globally (503), since each chain costs upstream polls until it ends.</li>
+ *   <li>{@code /sse/connect} is capped on open streams (503).</li>
+ * </ul>
+ * All checks are compare-and-set on atomics; a rejection only bumps a {@link LongAdder}.
+ * A limit of zero or less turns that check off.
+ */
+@Component
+@Slf4j
+public class AdmissionControl {
+
+    private final TrackingRegistry trackingRegistry;
+    private final ConcurrencyLimiter trackingLimiter;
+    private final ConcurrencyLimiter connectionLimiter;
+    private final KeyedRateLimiter startRateLimiter;
+    private final Duration overloadRetryAfter;
+
+    private final LongAdder rateLimitedStarts = new LongAdder();
+    private final LongAdder rejectedTrackings = new LongAdder();
+    private final LongAdder rejectedConnections = new LongAdder();
+
+    public AdmissionControl(TrackingRegistry trackingRegistry,
+                            @Value("${admission.max-in-flight-polls:10000}") int maxInFlightPolls,
+                            @Value("${admission.max-connections:10000}") int maxConnections,
+                            @Value("${admission.start-rate-per-user:5}") double startRatePerUser,
+                            @Value("${admission.start-burst-per-user:20}") int startBurstPerUser,
+                            @Value("${admission.overload-retry-after-seconds:5}") long overloadRetryAfterSeconds) {
+        this.trackingRegistry = trackingRegistry;
+        this.trackingLimiter = new ConcurrencyLimiter(maxInFlightPolls);
+        this.connectionLimiter = new ConcurrencyLimiter(maxConnections);
+        this.startRateLimiter = startRatePerUser > 0
+                ? new KeyedRateLimiter(startRatePerUser, startBurstPerUser, System::nanoTime)
+                : null;
+        this.overloadRetryAfter = Duration.ofSeconds(overloadRetryAfterSeconds);
+    }
+
+    @PostConstruct
+    void releaseTrackingsOnEnd() {
+        // Every chain ends exactly once, by completion or by losing its last subscriber
+        trackingRegistry.onEnd(tracked -> trackingLimiter.release());
+    }
+
+    /**
+     * Takes a start token for the user.
+     *
+     * @throws AdmissionRejectedException with 429 once the user's bucket is empty
+     */
+    public void admitStart(String userId) {
+        if (startRateLimiter == null) {
+            return;
+        }
+        long waitNanos = startRateLimiter.tryAcquire(userId);
+        if (waitNanos > 0) {
+            rateLimitedStarts.increment();
+            throw new AdmissionRejectedException(HttpStatus.TOO_MANY_REQUESTS, Duration.ofNanos(waitNanos),
+                    "Too many starts for userId: " + userId);
+        }
+    }
+
+    /**
+     * Admits a new tracking chain; the permit is returned when the chain ends.
+     *
+     * @throws AdmissionRejectedException with 503 once the node tracks its maximum
+     */
+    public void admitTracking() {
+        if (!trackingLimiter.tryAcquire()) {
+            rejectedTrackings.increment();
+            throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE, overloadRetryAfter,
+                    "Too many in-flight polls on this node");
+        }
+    }
+
+    /**
+     * Counts a chain without checking the cap, for chains admitted before a restart or one
+     * that took over a trackingId whose previous chain ended concurrently.
+     */
+    public void admitTrackingUnchecked() {
+        trackingLimiter.acquire();
+    }
+
+    /**
+     * Returns a permit taken for a chain that was never created.
+     */
+    public void releaseTracking() {
+        trackingLimiter.release();
+    }
+
+    /**
+     * Checks that the node can take another SSE stream, without holding a permit, so the
+     * rejection can still be answered with a status before the response starts.
+     *
+     * @throws AdmissionRejectedException with 503 once the node holds its maximum
+     */
+    public void checkConnectionCapacity() {
+        if (!connectionLimiter.hasCapacity()) {
+            throw connectionRejected();
+        }
+    }
+
+    /**
+     * Holds a connection permit for as long as {@code stream} is subscribed. The permit is
+     * taken on subscription and returned when the stream terminates or is cancelled, so a
+     * stream that is never subscribed holds nothing.
+     */
+    public <T> Flux<T> holdConnection(Flux<T> stream) {
+        return Flux.defer(() -> {
+            // Another connection may have taken the last permit since checkConnectionCapacity()
+            if (!connectionLimiter.tryAcquire()) {
+                return Flux.error(connectionRejected());
+            }
+            return stream.doFinally(signal -> connectionLimiter.release());
+        });
+    }
+
+    private AdmissionRejectedException connectionRejected() {
+        rejectedConnections.increment();
+        return new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE, overloadRetryAfter,
+                "Too many SSE connections on this node");
+    }
+
+    @Scheduled(fixedDelayString = "${admission.bucket-sweep-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        if (startRateLimiter != null) {
+            int evicted = startRateLimiter.evictIdle();
+            log.debug("Evicted {} idle start rate buckets", evicted);
+        }
+    }
+
+    public int getInFlightTrackings() {
+        return trackingLimiter.getInUse();
+    }
+
+    public int getOpenConnections() {
+        return connectionLimiter.getInUse();
+    }
+
+    public long getRateLimitedStartCount() {
+        return rateLimitedStarts.sum();
+    }
+
+    public long getRejectedTrackingCount() {
+        return rejectedTrackings.sum();
+    }
+
+    public long getRejectedConnectionCount() {
+        return rejectedConnections.sum();
+    }
+}
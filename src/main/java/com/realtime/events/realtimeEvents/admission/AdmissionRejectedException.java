@@ -0,0 +1,30 @@
+package com.realtime.events.realtimeEvents.admission;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request is shed by {@link AdmissionControl}. Carries the status to answer
+ * with and how long the client should wait before retrying.
+ */
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(HttpStatus status, Duration retryAfter, String message) {
+        super(message);
+        this.status = status;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * {@code Retry-After} value in whole seconds, rounded up so clients never retry early.
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+}
@@ -0,0 +1,55 @@
+package com.realtime.events.realtimeEvents.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A counting cap taken with a compare-and-set loop, so admission never blocks and never
+ * takes a lock. A limit of zero or less disables the cap but still counts.
+ */
+final class ConcurrencyLimiter {
+
+    private final int limit;
+    private final AtomicInteger inUse = new AtomicInteger();
+
+    ConcurrencyLimiter(int limit) {
+        this.limit = limit;
+    }
+
+    boolean tryAcquire() {
+        if (limit <= 0) {
+            inUse.incrementAndGet();
+            return true;
+        }
+        int current;
+        do {
+            current = inUse.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inUse.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Whether a permit is free right now, without taking it.
+     */
+    boolean hasCapacity() {
+        return limit <= 0 || inUse.get() < limit;
+    }
+
+    /**
+     * Takes a permit even above the limit, for work that was admitted before and is only
+     * being restored.
+     */
+    void acquire() {
+        inUse.incrementAndGet();
+    }
+
+    void release() {
+        inUse.decrementAndGet();
+    }
+
+    int getInUse() {
+        return inUse.get();
+    }
+}
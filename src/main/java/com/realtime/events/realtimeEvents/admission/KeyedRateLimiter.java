@@ -0,0 +1,79 @@
+package com.realtime.events.realtimeEvents.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * One token bucket per key, kept as a single theoretical arrival time (the GCRA form of a
+ * token bucket): a request is admitted while that time is at most {@code burst} intervals
+ * ahead of now, and each admission pushes it one interval further. Every bucket is one
+ * {@link AtomicLong} updated by compare-and-set, and the key map is a
+ * {@link ConcurrentHashMap}, so callers for different keys never contend. Eviction retires
+ * a bucket by compare-and-set before removing it, so a caller that already looked it up
+ * cannot take a token from a bucket that is no longer in the map.
+ */
+final class KeyedRateLimiter {
+
+    private static final long RETIRED = Long.MAX_VALUE;
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    KeyedRateLimiter(double permitsPerSecond, int burst, LongSupplier nanoClock) {
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstNanos = intervalNanos * Math.max(1, burst);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes a token for the key.
+     *
+     * @return {@code 0} if admitted, otherwise the nanoseconds until a token is available
+     */
+    long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        while (true) {
+            AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+            long arrival = bucket.get();
+            if (arrival == RETIRED) {
+                // Evicted since the lookup: help remove it and start over on a fresh bucket
+                buckets.remove(key, bucket);
+                continue;
+            }
+            long base = arrival == Long.MIN_VALUE || arrival - now < 0 ? now : arrival;
+            long next = base + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that refilled completely, which behave exactly like a missing one.
+     */
+    int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int evicted = 0;
+        for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+            AtomicLong bucket = entry.getValue();
+            long arrival = bucket.get();
+            if (arrival != RETIRED && arrival - now <= 0 && bucket.compareAndSet(arrival, RETIRED)) {
+                buckets.remove(entry.getKey(), bucket);
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    int getKeyCount() {
+        return buckets.size();
+    }
+}
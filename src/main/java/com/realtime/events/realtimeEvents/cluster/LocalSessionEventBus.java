@@ -0,0 +1,43 @@
+package com.realtime.events.realtimeEvents.cluster;
+
+import com.realtime.events.realtimeEvents.sessions.SseFrame;
+import com.realtime.events.realtimeEvents.sessions.SseSession;
+import com.realtime.events.realtimeEvents.sessions.SseSessionRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Sinks;
+
+import java.util.function.Consumer;
+
+/**
+ * Single-node bus: every session lives in this process.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class LocalSessionEventBus implements SessionEventBus {
+
+    private final SseSessionRegistry sessionRegistry;
+
+    @Override
+    public boolean publish(String sessionId, SseFrame frame) {
+        SseSession session = sessionRegistry.get(sessionId);
+        if (session == null) {
+            return false;
+        }
+        Sinks.EmitResult result = session.emit(frame);
+        if (result.isFailure()) {
+            log.debug("Event for sessionId={} not delivered: {}", sessionId, result);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isKnown(String sessionId) {
+        return sessionRegistry.get(sessionId) != null;
+    }
+
+    @Override
+    public void onSessionGone(Consumer<String> listener) {
+        sessionRegistry.onRemoval(listener);
+    }
+}
@@ -0,0 +1,47 @@
+package com.realtime.events.realtimeEvents.cluster;
+
+import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
+
+import java.util.Set;
+
+/**
+ * One message between nodes. Frames travel length-prefixed and several are written per
+ * flush.
+ *
+ * @param type       what the frame carries
+ * @param nodeId     the sending node
+ * @param sessionId  the session a CLAIM, RELEASE or EVENT is about
+ * @param sessionIds every session of the sender, only on HELLO
+ * @param event      the event to deliver, only on EVENT
+ * @param token      HMAC of the sender's id under the shared cluster secret, only on HELLO
+ */
+record PeerFrame(Type type, String nodeId, String sessionId, Set<String> sessionIds, InquiryApiResponse event,
+                 String token) {
+
+    enum Type {
+        /** First frame on a connection: the sender's id, proof it knows the secret and all of its sessions. */
+        HELLO,
+        /** A session connected to the sender. */
+        CLAIM,
+        /** A session left the sender. */
+        RELEASE,
+        /** An event for a session the receiver owns. */
+        EVENT
+    }
+
+    static PeerFrame hello(String nodeId, Set<String> sessionIds, String token) {
+        return new PeerFrame(Type.HELLO, nodeId, null, sessionIds, null, token);
+    }
+
+    static PeerFrame claim(String nodeId, String sessionId) {
+        return new PeerFrame(Type.CLAIM, nodeId, sessionId, null, null, null);
+    }
+
+    static PeerFrame release(String nodeId, String sessionId) {
+        return new PeerFrame(Type.RELEASE, nodeId, sessionId, null, null, null);
+    }
+
+    static PeerFrame event(String nodeId, String sessionId, InquiryApiResponse event) {
+        return new PeerFrame(Type.EVENT, nodeId, sessionId, null, event, null);
+    }
+}
@@ -0,0 +1,91 @@
+package com.realtime.events.realtimeEvents.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.tcp.TcpClient;
+import reactor.util.retry.Retry;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Outbound connection to one peer. Frames queue in a bounded buffer and go out in batches
+ * of up to {@code batchSize} frames or whatever arrived within {@code batchWindow}, one
+ * write and flush per batch. The link reconnects with backoff and starts every connection
+ * with a HELLO so the peer can resync its directory; frames in a batch that was being
+ * written when the connection dropped are lost.
+ */
+@Slf4j
+class PeerLink {
+
+    private final String nodeId;
+    private final String host;
+    private final int port;
+    private final int batchSize;
+    private final Duration batchWindow;
+    private final Supplier<byte[]> hello;
+    private final Sinks.Many<byte[]> outbound;
+    private volatile Disposable connection;
+
+    PeerLink(String nodeId, String host, int port, int queueSize, int batchSize, Duration batchWindow, Supplier<byte[]> hello) {
+        this.nodeId = nodeId;
+        this.host = host;
+        this.port = port;
+        this.batchSize = batchSize;
+        this.batchWindow = batchWindow;
+        this.hello = hello;
+        // autoCancel off: the sink outlives each connection and buffers while reconnecting
+        this.outbound = Sinks.many().multicast().onBackpressureBuffer(queueSize, false);
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * @return {@code false} if the queue is full, e.g. while the peer is unreachable
+     */
+    boolean send(byte[] frame) {
+        synchronized (outbound) {
+            return outbound.tryEmitNext(frame).isSuccess();
+        }
+    }
+
+    void start() {
+        connection = Mono.defer(() -> TcpClient.create().host(host).port(port).connect())
+                .flatMap(conn -> {
+                    log.info("Connected to peer {} at {}:{}", nodeId, host, port);
+                    return conn.outbound()
+                            // Fair backpressure: the default variant can miss the window timer and strand a lone frame
+                            .sendByteArray(Flux.concat(Mono.fromSupplier(hello),
+                                    outbound.asFlux().bufferTimeout(batchSize, batchWindow, true).map(PeerLink::concat)))
+                            .then()
+                            .doFinally(signal -> conn.dispose());
+                })
+                .doOnError(error -> log.debug("Link to peer {} failed: {}", nodeId, error.toString()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofMillis(100)).maxBackoff(Duration.ofSeconds(5)))
+                .repeat()
+                .subscribe();
+    }
+
+    void close() {
+        Disposable current = connection;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    private static byte[] concat(List<byte[]> frames) {
+        if (frames.size() == 1) {
+            return frames.get(0);
+        }
+        ByteArrayOutputStream batch = new ByteArrayOutputStream(frames.size() * 128);
+        frames.forEach(batch::writeBytes);
+        return batch.toByteArray();
+    }
+}
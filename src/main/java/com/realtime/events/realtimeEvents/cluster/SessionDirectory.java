@@ -0,0 +1,53 @@
+package com.realtime.events.realtimeEvents.cluster;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Which peer node owns which session, as announced by the peers themselves. Sessions on
+ * this node are not listed; the local registry is authoritative for those.
+ */
+class SessionDirectory {
+
+    private final Map<String, String> owners = new ConcurrentHashMap<>();
+
+    void claim(String sessionId, String nodeId) {
+        owners.put(sessionId, nodeId);
+    }
+
+    /**
+     * @return {@code true} if the node owned the session; a release from a previous owner
+     * after the session moved is ignored
+     */
+    boolean release(String sessionId, String nodeId) {
+        return owners.remove(sessionId, nodeId);
+    }
+
+    String ownerOf(String sessionId) {
+        return owners.get(sessionId);
+    }
+
+    /**
+     * Replaces everything known about the node with its full list of sessions, sent when it
+     * (re)connects.
+     *
+     * @return sessions the node owned before but no longer reports
+     */
+    List<String> replaceNode(String nodeId, Set<String> sessionIds) {
+        List<String> gone = new ArrayList<>();
+        owners.forEach((sessionId, owner) -> {
+            if (owner.equals(nodeId) && !sessionIds.contains(sessionId) && owners.remove(sessionId, nodeId)) {
+                gone.add(sessionId);
+            }
+        });
+        sessionIds.forEach(sessionId -> owners.put(sessionId, nodeId));
+        return gone;
+    }
+
+    int size() {
+        return owners.size();
+    }
+}
@@ -0,0 +1,30 @@
+package com.realtime.events.realtimeEvents.cluster;
+
+import com.realtime.events.realtimeEvents.sessions.SseFrame;
+
+import java.util.function.Consumer;
+
+/**
+ * Routes events to a session wherever it is connected, so any node can accept
+ * {@code /sse/start} and poll for a session owned by another node.
+ */
+public interface SessionEventBus {
+
+    /**
+     * Hands the event to the node that owns the session.
+     *
+     * @return {@code false} if no node currently owns the session
+     */
+    boolean publish(String sessionId, SseFrame frame);
+
+    /**
+     * @return whether the session is connected to this node or a known peer
+     */
+    boolean isKnown(String sessionId);
+
+    /**
+     * Registers a callback for sessions that went away on any node, used to release the
+     * pollers they subscribed to.
+     */
+    void onSessionGone(Consumer<String> listener);
+}
@@ -0,0 +1,278 @@
+package com.realtime.events.realtimeEvents.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.sessions.SseFrame;
+import com.realtime.events.realtimeEvents.sessions.SseFrameEncoder;
+import com.realtime.events.realtimeEvents.sessions.SseSession;
+import com.realtime.events.realtimeEvents.sessions.SseSessionRegistry;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import lombok.extern.slf4j.Slf4j;
+import reactor.netty.DisposableServer;
+import reactor.netty.tcp.TcpServer;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Peer-to-peer bus over plain TCP. Every node listens on {@code cluster.port} and keeps
+ * one outbound {@link PeerLink} per configured peer, so each pair of nodes talks over two
+ * one-way connections. Nodes announce the sessions they own (HELLO on connect, then CLAIM
+ * and RELEASE), which fills each node's {@link SessionDirectory}; an event for a session
+ * owned elsewhere is forwarded as an EVENT frame to the owner, which emits it locally.
+ * <p>
+ * Delivery is at most once, like the in-process path: frames queued for an unreachable
+ * peer are dropped once its queue is full.
+ * <p>
+ * An inbound connection is accepted only if its first frame is a HELLO from a configured
+ * peer carrying the HMAC of that peer's id under the shared {@code cluster.secret}, and
+ * every later frame on it must come from that same peer. The secret keeps strangers from
+ * injecting events or claiming sessions; it does not encrypt the link, so peers still
+ * belong on a private network.
+ */
+@Slf4j
+public class TcpPeerEventBus implements SessionEventBus {
+
+    private static final int MAX_FRAME_BYTES = 1 << 20;
+    private static final String ALGORITHM = "HmacSHA256";
+
+    /**
+     * A configured peer, written {@code nodeId@host:port}.
+     */
+    public record Peer(String nodeId, String host, int port) {
+
+        public static Peer parse(String value) {
+            String[] idAndAddress = value.trim().split("@", 2);
+            int colon = idAndAddress[1].lastIndexOf(':');
+            return new Peer(idAndAddress[0], idAndAddress[1].substring(0, colon),
+                    Integer.parseInt(idAndAddress[1].substring(colon + 1)));
+        }
+    }
+
+    private final SseSessionRegistry sessionRegistry;
+    private final ObjectMapper objectMapper;
+    private final SseFrameEncoder frameEncoder;
+    private final String nodeId;
+    private final String host;
+    private final int port;
+    private final SecretKeySpec key;
+    private final Map<String, PeerLink> links;
+    private final SessionDirectory directory = new SessionDirectory();
+    private final List<Consumer<String>> goneListeners = new CopyOnWriteArrayList<>();
+    private final LongAdder forwarded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private DisposableServer server;
+
+    public TcpPeerEventBus(SseSessionRegistry sessionRegistry, ObjectMapper objectMapper, String nodeId, String secret,
+                           String host, int port, List<Peer> peers, int queueSize, int batchSize, Duration batchWindow) {
+        if (nodeId == null || nodeId.isBlank()) {
+            throw new IllegalArgumentException("cluster.node-id is required for the TCP peer bus");
+        }
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("cluster.secret is required for the TCP peer bus");
+        }
+        this.sessionRegistry = sessionRegistry;
+        this.objectMapper = objectMapper;
+        this.frameEncoder = new SseFrameEncoder(objectMapper);
+        this.nodeId = nodeId;
+        this.host = host;
+        this.port = port;
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.links = peers.stream()
+                .map(peer -> new PeerLink(peer.nodeId(), peer.host(), peer.port(), queueSize, batchSize, batchWindow,
+                        () -> encode(PeerFrame.hello(nodeId, sessionRegistry.getSessionIds(), sign(nodeId)))))
+                .collect(Collectors.toUnmodifiableMap(PeerLink::getNodeId, Function.identity()));
+    }
+
+    public void start() {
+        sessionRegistry.onCreation(sessionId -> broadcast(PeerFrame.claim(nodeId, sessionId)));
+        sessionRegistry.onRemoval(sessionId -> {
+            broadcast(PeerFrame.release(nodeId, sessionId));
+            // A local copy evicted while a peer serves the client does not end the session
+            if (directory.ownerOf(sessionId) == null) {
+                sessionGone(sessionId);
+            }
+        });
+        server = TcpServer.create()
+                .host(host)
+                .port(port)
+                .doOnConnection(connection -> connection.addHandlerLast(
+                        new LengthFieldBasedFrameDecoder(MAX_FRAME_BYTES, 0, Integer.BYTES, 0, Integer.BYTES)))
+                .handle((inbound, outbound) -> {
+                    AtomicReference<String> peer = new AtomicReference<>();
+                    // Ending the inbound stream closes the connection
+                    return inbound.receive()
+                            .asByteArray()
+                            .takeWhile(bytes -> receive(bytes, peer))
+                            .then();
+                })
+                .bindNow();
+        links.values().forEach(PeerLink::start);
+        log.info("Peer event bus {} listening on {}:{} with peers {}", nodeId, host, server.port(), links.keySet());
+    }
+
+    @Override
+    public boolean publish(String sessionId, SseFrame frame) {
+        SseSession local = sessionRegistry.get(sessionId);
+        // A detached local copy loses to a peer the client has since reconnected to
+        if (local != null && local.isConnected()) {
+            local.emit(frame);
+            return true;
+        }
+        String owner = directory.ownerOf(sessionId);
+        PeerLink link = owner != null ? links.get(owner) : null;
+        if (link != null) {
+            if (link.send(encode(PeerFrame.event(nodeId, sessionId, frame.getResponse())))) {
+                forwarded.increment();
+            } else {
+                dropped.increment();
+            }
+            return true;
+        }
+        if (local != null) {
+            local.emit(frame); // kept for replay when the client comes back
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isKnown(String sessionId) {
+        return sessionRegistry.get(sessionId) != null || directory.ownerOf(sessionId) != null;
+    }
+
+    @Override
+    public void onSessionGone(Consumer<String> listener) {
+        goneListeners.add(listener);
+    }
+
+    public int getPort() {
+        return server.port();
+    }
+
+    public long getForwardedCount() {
+        return forwarded.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public void close() {
+        links.values().forEach(PeerLink::close);
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    /**
+     * @param peer the node this connection authenticated as, set by its first frame
+     * @return {@code false} to close the connection
+     */
+    private boolean receive(byte[] bytes, AtomicReference<String> peer) {
+        PeerFrame frame;
+        try {
+            frame = objectMapper.readValue(bytes, PeerFrame.class);
+        } catch (IOException e) {
+            if (peer.get() == null) {
+                rejected.increment();
+                log.warn("Closing peer connection that opened with an unreadable frame");
+                return false;
+            }
+            log.warn("Dropping unreadable peer frame", e);
+            return true;
+        }
+        if (peer.get() == null) {
+            if (!authenticates(frame)) {
+                rejected.increment();
+                log.warn("Closing peer connection from {}: first frame is not a valid HELLO", frame.nodeId());
+                return false;
+            }
+            peer.set(frame.nodeId());
+        } else if (!peer.get().equals(frame.nodeId())) {
+            rejected.increment();
+            log.warn("Closing connection of peer {} that sent a frame as {}", peer.get(), frame.nodeId());
+            return false;
+        }
+        switch (frame.type()) {
+            case HELLO -> directory.replaceNode(frame.nodeId(), frame.sessionIds()).forEach(this::sessionGone);
+            case CLAIM -> directory.claim(frame.sessionId(), frame.nodeId());
+            case RELEASE -> {
+                if (directory.release(frame.sessionId(), frame.nodeId())) {
+                    sessionGone(frame.sessionId());
+                }
+            }
+            case EVENT -> {
+                SseSession session = sessionRegistry.get(frame.sessionId());
+                if (session != null) {
+                    session.emit(frameEncoder.encode(frame.event()));
+                } else {
+                    log.debug("Event from {} for unknown sessionId={}", frame.nodeId(), frame.sessionId());
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean authenticates(PeerFrame frame) {
+        return frame.type() == PeerFrame.Type.HELLO
+                && frame.nodeId() != null
+                && links.containsKey(frame.nodeId())
+                && frame.token() != null
+                // constant time comparison so the token can't be guessed byte by byte
+                && MessageDigest.isEqual(sign(frame.nodeId()).getBytes(StandardCharsets.UTF_8),
+                frame.token().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String sign(String nodeId) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return HexFormat.of().formatHex(mac.doFinal(nodeId.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+        }
+    }
+
+    private void sessionGone(String sessionId) {
+        goneListeners.forEach(listener -> listener.accept(sessionId));
+    }
+
+    private void broadcast(PeerFrame frame) {
+        byte[] encoded = encode(frame);
+        links.values().forEach(link -> {
+            if (!link.send(encoded)) {
+                dropped.increment();
+            }
+        });
+    }
+
+    private byte[] encode(PeerFrame frame) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(frame);
+            return ByteBuffer.allocate(Integer.BYTES + json.length).putInt(json.length).put(json).array();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
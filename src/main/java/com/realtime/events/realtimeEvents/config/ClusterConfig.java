@@ -0,0 +1,62 @@
+package com.realtime.events.realtimeEvents.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.cluster.LocalSessionEventBus;
+import com.realtime.events.realtimeEvents.cluster.SessionEventBus;
+import com.realtime.events.realtimeEvents.cluster.TcpPeerEventBus;
+import com.realtime.events.realtimeEvents.sessions.SseSessionRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+@Configuration
+public class ClusterConfig {
+
+    @Value("${cluster.bus:local}")
+    private String busType;
+
+    @Value("${cluster.node-id:}")
+    private String nodeId;
+
+    @Value("${cluster.secret:}")
+    private String secret;
+
+    @Value("${cluster.host:127.0.0.1}")
+    private String host;
+
+    @Value("${cluster.port:7400}")
+    private int port;
+
+    @Value("${cluster.peers:}")
+    private String peers;
+
+    @Value("${cluster.queue-size:8192}")
+    private int queueSize;
+
+    @Value("${cluster.batch-size:256}")
+    private int batchSize;
+
+    @Value("${cluster.batch-window-ms:2}")
+    private long batchWindowMs;
+
+    @Bean
+    public SessionEventBus sessionEventBus(SseSessionRegistry sessionRegistry, ObjectMapper objectMapper) {
+        if (!"tcp".equalsIgnoreCase(busType)) {
+            return new LocalSessionEventBus(sessionRegistry);
+        }
+        // e.g. "node-b@10.0.0.2:7400,node-c@10.0.0.3:7400"
+        List<TcpPeerEventBus.Peer> peerList = Arrays.stream(peers.split(","))
+                .map(String::trim)
+                .filter(peer -> !peer.isEmpty())
+                .map(TcpPeerEventBus.Peer::parse)
+                .toList();
+        TcpPeerEventBus bus = new TcpPeerEventBus(sessionRegistry, objectMapper, nodeId, secret, host, port, peerList,
+                queueSize, batchSize, Duration.ofMillis(batchWindowMs));
+        bus.start();
+        return bus;
+    }
+}
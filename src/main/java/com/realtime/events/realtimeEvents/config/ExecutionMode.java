@@ -0,0 +1,21 @@
+package com.realtime.events.realtimeEvents.config;
+
+/**
+ * Web stack and thread model the service runs on, chosen with {@code realtime.execution-mode}.
+ */
+public enum ExecutionMode {
+    /**
+     * Spring MVC on Tomcat with platform threads: a request pool plus the bounded {@code mvcTaskExecutor}.
+     */
+    SERVLET,
+    /**
+     * Spring MVC on Tomcat with a virtual thread per request, async task and scheduled run.
+     * Needs Java 21.
+     */
+    VIRTUAL,
+    /**
+     * WebFlux on Reactor Netty: no servlet container and no request thread pool, every
+     * connection is served by the same event loops the upstream client uses.
+     */
+    REACTIVE
+}
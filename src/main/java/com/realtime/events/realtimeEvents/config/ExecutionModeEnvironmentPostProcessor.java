@@ -0,0 +1,34 @@
+package com.realtime.events.realtimeEvents.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * Turns {@code realtime.execution-mode} into the Spring Boot properties that pick the web
+ * stack ({@code spring.main.web-application-type}) and the thread model
+ * ({@code spring.threads.virtual.enabled}). It has to run before the context is created,
+ * since the web application type cannot change afterwards. The derived values are added
+ * last, so an explicit {@code spring.*} setting still wins.
+ */
+public class ExecutionModeEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String PROPERTY = "realtime.execution-mode";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        ExecutionMode mode = ExecutionMode.valueOf(environment.getProperty(PROPERTY, "servlet").trim().toUpperCase());
+        if (mode == ExecutionMode.VIRTUAL && JavaVersion.getJavaVersion().isOlderThan(JavaVersion.TWENTY_ONE)) {
+            // Boot would silently fall back to platform threads
+            throw new IllegalStateException(PROPERTY + "=virtual needs Java 21 or newer, running on "
+                    + JavaVersion.getJavaVersion());
+        }
+        environment.getPropertySources().addLast(new MapPropertySource("realtimeExecutionMode", Map.of(
+                "spring.main.web-application-type", mode == ExecutionMode.REACTIVE ? "reactive" : "servlet",
+                "spring.threads.virtual.enabled", mode == ExecutionMode.VIRTUAL)));
+    }
+}
@@ -1,36 +1,161 @@
 package com.realtime.events.realtimeEvents.config;
 
-import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.polling.AdaptivePollingIntervalPolicy;
+import com.realtime.events.realtimeEvents.polling.FixedPollingIntervalPolicy;
+import com.realtime.events.realtimeEvents.polling.PollingIntervalPolicy;
+import com.realtime.events.realtimeEvents.scheduling.PollScheduler;
+import com.realtime.events.realtimeEvents.status.ContainsStatusClassifier;
+import com.realtime.events.realtimeEvents.status.JsonFieldStatusClassifier;
+import com.realtime.events.realtimeEvents.status.StatusClassifier;
+import com.realtime.events.realtimeEvents.upstream.BatchingStatusClient;
+import com.realtime.events.realtimeEvents.upstream.CircuitBreaker;
+import com.realtime.events.realtimeEvents.upstream.PerIdStatusClient;
+import com.realtime.events.realtimeEvents.upstream.ResilientStatusClient;
+import com.realtime.events.realtimeEvents.upstream.RetryBudget;
+import com.realtime.events.realtimeEvents.upstream.UpstreamGuard;
+import com.realtime.events.realtimeEvents.upstream.UpstreamStatusClient;
+import io.netty.channel.ChannelOption;
 import lombok.NonNull;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.codec.ServerSentEvent;
-import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-import reactor.core.publisher.Sinks;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 
 @Configuration
-@EnableAsync
 public class RealtimeEventsConfig {
 
+    static final String[] ALLOWED_ORIGINS = {"http://localhost:5173", "http://localhost:3000"};
+
     @Value("${external.api.baseUrl}")
     private String baseUrl;
 
+    @Value("${external.api.status-uri}")
+    private String statusApiUri;
+
+    @Value("${external.api.batch-enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${external.api.batch-status-uri:}")
+    private String batchStatusUri;
+
+    @Value("${external.api.batch-window-ms:50}")
+    private long batchWindowMs;
+
+    @Value("${external.api.batch-size:200}")
+    private int batchSize;
+
+    @Value("${external.api.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+
+    @Value("${external.api.response-timeout-ms:5000}")
+    private long responseTimeoutMs;
+
+    @Value("${external.api.http2:false}")
+    private boolean http2;
+
+    @Value("${external.api.pool.max-connections:500}")
+    private int poolMaxConnections;
+
+    @Value("${external.api.pool.pending-acquire-max-count:1000}")
+    private int poolPendingAcquireMaxCount;
+
+    @Value("${external.api.pool.pending-acquire-timeout-ms:2000}")
+    private long poolPendingAcquireTimeoutMs;
+
+    @Value("${external.api.pool.max-idle-time-ms:30000}")
+    private long poolMaxIdleTimeMs;
+
+    @Value("${external.api.pool.max-life-time-ms:300000}")
+    private long poolMaxLifeTimeMs;
+
+    @Value("${external.api.circuit-breaker.window-size:50}")
+    private int breakerWindowSize;
+
+    @Value("${external.api.circuit-breaker.minimum-calls:20}")
+    private int breakerMinimumCalls;
+
+    @Value("${external.api.circuit-breaker.failure-rate-percent:50}")
+    private int breakerFailureRatePercent;
+
+    @Value("${external.api.circuit-breaker.open-seconds:10}")
+    private long breakerOpenSeconds;
+
+    @Value("${external.api.retry-budget.ratio:0.1}")
+    private double retryBudgetRatio;
+
+    @Value("${external.api.retry-budget.max-tokens:50}")
+    private int retryBudgetMaxTokens;
+
+    @Value("${external.api.retry-delay-ms:1000}")
+    private long retryDelayMs;
+
+    @Value("${status.classifier.type:json}")
+    private String statusClassifierType;
+
+    @Value("${status.classifier.field-path:status}")
+    private String statusFieldPath;
+
+    @Value("${status.classifier.mappings:COMPLETED:COMPLETED,FAILED:FAILED,REJECTED:REJECTED}")
+    private String statusMappings;
+
+    @Value("${status.classifier.tracked-fields:}")
+    private String trackedFields;
+
+    @Value("${polling.scheduler.tick-ms:100}")
+    private long schedulerTickMs;
+
+    @Value("${polling.scheduler.ticks-per-wheel:512}")
+    private int schedulerTicksPerWheel;
+
+    @Value("${polling.intervals}")
+    private String pollingIntervals;
+
+    @Value("${polling.policy:fixed}")
+    private String pollingPolicy;
+
+    @Value("${polling.adaptive.base-ms:500}")
+    private long adaptiveBaseMs;
+
+    @Value("${polling.adaptive.cap-ms:10000}")
+    private long adaptiveCapMs;
+
+    @Value("${polling.adaptive.max-elapsed-seconds:120}")
+    private long adaptiveMaxElapsedSeconds;
+
+    @Value("${polling.adaptive.min-samples:20}")
+    private int adaptiveMinSamples;
 
     @Bean(name = "mvcTaskExecutor")
-    public AsyncTaskExecutor mvcTaskExecutor() {
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public AsyncTaskExecutor mvcTaskExecutor(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // A virtual thread per task: nothing to size, blocking in one costs no pool slot
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("mvc-async-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(4);      // Adjust as needed
         executor.setMaxPoolSize(50);
@@ -41,32 +166,110 @@ public class RealtimeEventsConfig {
     }
 
     @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
     public WebMvcConfigurer corsConfigurer() {
         return new WebMvcConfigurer() {
             public void addCorsMappings(@NonNull CorsRegistry registry) {
                 registry.addMapping("/**")
-                        .allowedOrigins("http://localhost:5173", "http://localhost:3000")
+                        .allowedOrigins(ALLOWED_ORIGINS)
                         .allowedMethods("*")
                         .allowCredentials(true);
             }
         };
     }
 
+    /**
+     * Bounded pool for upstream calls: a brownout queues at most the pending-acquire count,
+     * and waits at most the acquire timeout, instead of piling up requests in memory.
+     * Exposes {@code reactor.netty.connection.provider.*{name=upstream}} gauges.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider() {
+        return ConnectionProvider.builder("upstream")
+                .maxConnections(poolMaxConnections)
+                .pendingAcquireMaxCount(poolPendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(poolPendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(poolMaxIdleTimeMs))
+                .maxLifeTime(Duration.ofMillis(poolMaxLifeTimeMs))
+                .evictInBackground(Duration.ofMillis(poolMaxIdleTimeMs))
+                .metrics(true)
+                .build();
+    }
+
     @Bean
-    public WebClient webClient() {
-        return WebClient.builder()
+    public WebClient webClient(WebClient.Builder webClientBuilder, ConnectionProvider upstreamConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(upstreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+        if (http2) {
+            // Negotiated with ALPN over TLS, or by upgrade in clear text; HTTP/1.1 stays the fallback
+            httpClient = baseUrl.startsWith("https")
+                    ? httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                    : httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+        // The Boot-managed builder records http.client.requests per URI template
+        return webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .baseUrl(baseUrl)
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .build();
     }
 
     @Bean
-    public Map<String, Sinks.Many<ServerSentEvent<InquiryApiResponse>>> sessions() {
-        return new ConcurrentHashMap<>();
+    public CircuitBreaker upstreamCircuitBreaker() {
+        return new CircuitBreaker(breakerWindowSize, breakerMinimumCalls, breakerFailureRatePercent,
+                Duration.ofSeconds(breakerOpenSeconds), Duration.ofMillis(responseTimeoutMs), System::nanoTime);
+    }
+
+    @Bean
+    public RetryBudget upstreamRetryBudget() {
+        return new RetryBudget(retryBudgetRatio, retryBudgetMaxTokens);
+    }
+
+    @Bean
+    public StatusClassifier statusClassifier(ObjectMapper objectMapper) {
+        if ("contains".equalsIgnoreCase(statusClassifierType)) {
+            return new ContainsStatusClassifier();
+        }
+        // e.g. "DONE:COMPLETED,ERROR:FAILED" maps upstream values onto our states
+        Map<String, String> mappings = Arrays.stream(statusMappings.split(","))
+                .map(String::trim)
+                .filter(mapping -> !mapping.isEmpty())
+                .map(mapping -> mapping.split(":", 2))
+                .collect(Collectors.toMap(pair -> pair[0].trim(), pair -> pair[1].trim().toUpperCase()));
+        // e.g. "progress,step.name": changes to these are sent to clients even while the status stays the same
+        List<String> tracked = Arrays.stream(trackedFields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .toList();
+        return new JsonFieldStatusClassifier(objectMapper.getFactory(), statusFieldPath, mappings, tracked);
+    }
+
+    @Bean
+    public UpstreamStatusClient upstreamStatusClient(WebClient webClient, StatusClassifier statusClassifier,
+                                                     CircuitBreaker upstreamCircuitBreaker, RetryBudget upstreamRetryBudget) {
+        UpstreamGuard guard = new UpstreamGuard(upstreamCircuitBreaker, upstreamRetryBudget, Duration.ofMillis(retryDelayMs));
+        // Guarded per HTTP call: around each batch request, or around each per-id poll
+        return batchEnabled
+                ? new BatchingStatusClient(webClient, batchStatusUri, statusClassifier, Duration.ofMillis(batchWindowMs),
+                        batchSize, guard)
+                : new ResilientStatusClient(new PerIdStatusClient(webClient, statusApiUri, statusClassifier), guard);
+    }
+
+    @Bean
+    public PollingIntervalPolicy pollingIntervalPolicy() {
+        if ("adaptive".equalsIgnoreCase(pollingPolicy)) {
+            return new AdaptivePollingIntervalPolicy(Duration.ofMillis(adaptiveBaseMs), Duration.ofMillis(adaptiveCapMs),
+                    Duration.ofSeconds(adaptiveMaxElapsedSeconds), adaptiveMinSamples, ThreadLocalRandom::current);
+        }
+        return new FixedPollingIntervalPolicy(Arrays.stream(pollingIntervals.split(","))
+                .map(String::trim)
+                .map(seconds -> Duration.ofSeconds(Integer.parseInt(seconds)))
+                .toList());
     }
 
-    @Bean(destroyMethod = "shutdown")
-    public ScheduledExecutorService scheduler() {
-        return Executors.newScheduledThreadPool(10);
+    @Bean(destroyMethod = "stop")
+    public PollScheduler pollScheduler() {
+        return new PollScheduler(Duration.ofMillis(schedulerTickMs), schedulerTicksPerWheel);
     }
 }
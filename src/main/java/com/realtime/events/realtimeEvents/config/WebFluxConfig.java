@@ -0,0 +1,54 @@
+package com.realtime.events.realtimeEvents.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.sessions.SseFrameDataEncoder;
+import lombok.NonNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Web setup for {@code realtime.execution-mode=reactive}, the WebFlux side of
+ * {@link WebMvcAsyncConfig}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class WebFluxConfig implements WebFluxConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    public WebFluxConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Boot would pick Tomcat first since the servlet starter is on the classpath too; this
+     * keeps the reactive mode on Reactor Netty, sharing its event loops with the upstream client.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(ReactorResourceFactory resourceFactory) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.setResourceFactory(resourceFactory);
+        return factory;
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(@NonNull ServerCodecConfigurer configurer) {
+        // SSE frames encoded once at fan-out are written as they are instead of going through Jackson again
+        configurer.defaultCodecs().serverSentEventEncoder(new SseFrameDataEncoder(new Jackson2JsonEncoder(objectMapper)));
+    }
+
+    @Override
+    public void addCorsMappings(@NonNull CorsRegistry registry) {
+        registry.addMapping("/**")
+                .allowedOrigins(RealtimeEventsConfig.ALLOWED_ORIGINS)
+                .allowedMethods("*")
+                .allowCredentials(true);
+    }
+}
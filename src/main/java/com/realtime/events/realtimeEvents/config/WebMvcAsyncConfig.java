@@ -1,14 +1,18 @@
 package com.realtime.events.realtimeEvents.config;
 
+import com.realtime.events.realtimeEvents.sessions.SseFrameHttpMessageConverter;
 import lombok.NonNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.AsyncTaskExecutor;
-import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
-@EnableAsync
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class WebMvcAsyncConfig implements WebMvcConfigurer {
 
     private final AsyncTaskExecutor mvcTaskExecutor;
@@ -22,4 +26,10 @@ public class WebMvcAsyncConfig implements WebMvcConfigurer {
         configurer.setTaskExecutor(mvcTaskExecutor);
         configurer.setDefaultTimeout(30000); // Optional: default timeout in ms
     }
+
+    @Override
+    public void extendMessageConverters(@NonNull List<HttpMessageConverter<?>> converters) {
+        // Ahead of Jackson so SSE frames encoded once at fan-out are not serialized again per subscriber
+        converters.add(0, new SseFrameHttpMessageConverter());
+    }
 }
@@ -0,0 +1,51 @@
+package com.realtime.events.realtimeEvents.controllers;
+
+import com.realtime.events.realtimeEvents.services.CallbackSignatureVerifier;
+import com.realtime.events.realtimeEvents.services.TrackingStatusHandler;
+import com.realtime.events.realtimeEvents.status.StatusClassification;
+import com.realtime.events.realtimeEvents.status.StatusClassifier;
+import com.realtime.events.realtimeEvents.tracking.TrackedPoll;
+import com.realtime.events.realtimeEvents.tracking.TrackingRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Receives status updates pushed by upstream and routes them straight to the subscribed
+ * sessions through the same handling the pollers use.
+ */
+@RestController
+@RequestMapping("/callback")
+@RequiredArgsConstructor
+@Slf4j
+public class CallbackController {
+
+    private final TrackingRegistry trackingRegistry;
+    private final TrackingStatusHandler statusHandler;
+    private final StatusClassifier statusClassifier;
+    private final CallbackSignatureVerifier signatureVerifier;
+
+    @PostMapping("/{trackingId}")
+    public Mono<ResponseEntity<String>> receiveStatus(
+            @PathVariable String trackingId,
+            @RequestHeader(value = "X-Signature", required = false) String signature,
+            @RequestBody byte[] body) {
+        if (!signatureVerifier.verify(body, signature)) {
+            log.warn("Rejected callback with invalid signature for trackingId={}", trackingId);
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid signature"));
+        }
+
+        TrackedPoll tracked = trackingRegistry.find(trackingId);
+        if (tracked == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body("Unknown trackingId: " + trackingId));
+        }
+
+        StatusClassification classification = statusClassifier.classify(body);
+        log.debug("Callback status for trackingId={}: {}", trackingId, classification);
+        statusHandler.handleStatus(tracked, classification);
+        return Mono.just(ResponseEntity.ok("Status accepted"));
+    }
+}
@@ -1,11 +1,17 @@
 package com.realtime.events.realtimeEvents.controllers;
 
+import com.realtime.events.realtimeEvents.admission.AdmissionControl;
+import com.realtime.events.realtimeEvents.admission.AdmissionRejectedException;
 import com.realtime.events.realtimeEvents.dto.InquiryApiRequest;
-import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
-import com.realtime.events.realtimeEvents.services.RealtimeEventsService;
-import com.realtime.events.realtimeEvents.services.RealtimeEventsServiceV1;
+import com.realtime.events.realtimeEvents.dto.SubscriptionRequest;
+import com.realtime.events.realtimeEvents.services.ExternalProcessService;
+import com.realtime.events.realtimeEvents.sessions.SseFrame;
+import com.realtime.events.realtimeEvents.sessions.SseSessionRegistry;
+import com.realtime.events.realtimeEvents.subscriptions.SubscriptionIndex;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.ServerSentEvent;
@@ -13,31 +19,34 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.publisher.Sinks;
-
-import java.util.Map;
-import java.util.concurrent.ScheduledExecutorService;
 
 @RestController
 @RequestMapping("/sse")
 @RequiredArgsConstructor
 @Validated
+@Slf4j
 public class RealtimeEventsController {
 
-    private final Map<String, Sinks.Many<ServerSentEvent<InquiryApiResponse>>> sessions;
-    private final ScheduledExecutorService scheduler;
-    private final RealtimeEventsServiceV1 realtimeEventsService;
+    private final SseSessionRegistry sessionRegistry;
+    private final ExternalProcessService realtimeEventsService;
+    private final SubscriptionIndex subscriptionIndex;
+    private final AdmissionControl admissionControl;
 
     @GetMapping(value = "/connect/{sessionId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<ServerSentEvent<InquiryApiResponse>> connect(@PathVariable String sessionId) {
-        Sinks.Many<ServerSentEvent<InquiryApiResponse>> sink = Sinks.many().multicast().onBackpressureBuffer();
-        sessions.put(sessionId, sink);
-
-        return sink.asFlux()
-                .doOnCancel(() -> {
-                    System.out.println("SSE disconnected: " + sessionId);
-                    sessions.remove(sessionId);
-                });
+    public ResponseEntity<Flux<ServerSentEvent<SseFrame>>> connect(
+            @PathVariable String sessionId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        try {
+            admissionControl.checkConnectionCapacity();
+        } catch (AdmissionRejectedException e) {
+            return rejected(e);
+        }
+        // A dropped connection keeps its session until the registry's idle TTL so it can resume with Last-Event-ID
+        return ResponseEntity.ok(admissionControl.holdConnection(sessionRegistry.connect(sessionId)
+                .attach(parseLastEventId(lastEventId))
+                // Commits the response right away so clients see the stream open before the first event
+                .startWith(ServerSentEvent.<SseFrame>builder().comment("connected").build())
+                .doFinally(signal -> log.debug("SSE disconnected: {} ({})", sessionId, signal))));
     }
 
     @PostMapping("/start/{sessionId}")
@@ -47,17 +56,56 @@ public class RealtimeEventsController {
         try {
             realtimeEventsService.startExternalProcess(sessionId, input);
             return Mono.just(ResponseEntity.ok("ACK Received"));
+        } catch (AdmissionRejectedException e) {
+            return Mono.just(rejected(e));
         } catch (IllegalArgumentException e) {
             return Mono.just(ResponseEntity.badRequest().body(e.getMessage()));
         }
     }
 
+    /**
+     * Adds trackingIds, userIds and status filters to what the stream of this session receives.
+     */
+    @PostMapping("/subscriptions/{sessionId}")
+    public Mono<ResponseEntity<SubscriptionRequest>> subscribe(
+            @PathVariable String sessionId,
+            @RequestBody SubscriptionRequest request) {
+        if (sessionRegistry.get(sessionId) == null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        subscriptionIndex.subscribe(sessionId, request);
+        return Mono.just(ResponseEntity.ok(subscriptionIndex.getSubscriptions(sessionId)));
+    }
+
+    @DeleteMapping("/subscriptions/{sessionId}")
+    public Mono<ResponseEntity<SubscriptionRequest>> unsubscribe(
+            @PathVariable String sessionId,
+            @RequestBody SubscriptionRequest request) {
+        subscriptionIndex.unsubscribe(sessionId, request);
+        return Mono.just(ResponseEntity.ok(subscriptionIndex.getSubscriptions(sessionId)));
+    }
+
     @DeleteMapping("/disconnect/{sessionId}")
     public Mono<Void> disconnect(@PathVariable String sessionId) {
-        Sinks.Many<ServerSentEvent<InquiryApiResponse>> sink = sessions.remove(sessionId);
-        if (sink != null) {
-            sink.tryEmitComplete();
-        }
+        sessionRegistry.remove(sessionId);
         return Mono.empty();
     }
+
+    private static <T> ResponseEntity<T> rejected(AdmissionRejectedException e) {
+        log.debug("Request shed: {}", e.getMessage());
+        return ResponseEntity.status(e.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .build();
+    }
+
+    private static long parseLastEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.realtime.events.realtimeEvents.dto;
 
+import com.realtime.events.realtimeEvents.tracking.TrackingMode;
 import lombok.*;
 import jakarta.validation.constraints.NotBlank;
 
@@ -14,4 +15,11 @@ public class InquiryApiRequest  {
 
     @NotBlank(message = "userId is required")
     private String userId;
+
+    // Optional; falls back to tracking.default-mode
+    private TrackingMode mode;
+
+    public InquiryApiRequest(String trackingId, String userId) {
+        this(trackingId, userId, null);
+    }
 }
@@ -0,0 +1,19 @@
+package com.realtime.events.realtimeEvents.dto;
+
+import lombok.*;
+
+import java.util.Set;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class SubscriptionRequest {
+    private Set<String> trackingIds = Set.of();
+
+    private Set<String> userIds = Set.of();
+
+    // Only these statuses are delivered for the subscriptions; empty means all
+    private Set<String> statuses = Set.of();
+}
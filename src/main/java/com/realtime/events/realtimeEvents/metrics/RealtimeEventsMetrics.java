@@ -0,0 +1,135 @@
+package com.realtime.events.realtimeEvents.metrics;
+
+import com.realtime.events.realtimeEvents.admission.AdmissionControl;
+import com.realtime.events.realtimeEvents.scheduling.PollScheduler;
+import com.realtime.events.realtimeEvents.services.ChangeDetectionCounters;
+import com.realtime.events.realtimeEvents.sessions.SessionEmitCounters;
+import com.realtime.events.realtimeEvents.sessions.SseSessionFactory;
+import com.realtime.events.realtimeEvents.sessions.SseSessionRegistry;
+import com.realtime.events.realtimeEvents.tracking.TrackingRegistry;
+import com.realtime.events.realtimeEvents.upstream.CircuitBreaker;
+import com.realtime.events.realtimeEvents.upstream.RetryBudget;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Exposes the counters the session, tracking and scheduling classes already keep as
+ * meters, so those classes stay free of Micrometer and the hot paths only bump LongAdders.
+ * Upstream call latency comes from the instrumented {@code WebClient.Builder}
+ * ({@code http.client.requests}, tagged by URI template), upstream pool state from
+ * Reactor Netty ({@code reactor.netty.connection.provider.*}) and, in servlet mode,
+ * {@code mvcTaskExecutor} saturation from Boot's executor metrics
+ * ({@code executor.*{name=mvcTaskExecutor}}; virtual threads have no pool to report).
+ */
+@Component
+@RequiredArgsConstructor
+public class RealtimeEventsMetrics implements MeterBinder {
+
+    private final SseSessionRegistry sessionRegistry;
+    private final SseSessionFactory sessionFactory;
+    private final TrackingRegistry trackingRegistry;
+    private final PollScheduler pollScheduler;
+    private final AdmissionControl admissionControl;
+    private final ChangeDetectionCounters changeDetectionCounters;
+    private final CircuitBreaker upstreamCircuitBreaker;
+    private final RetryBudget upstreamRetryBudget;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("sse.sessions.active", sessionRegistry, SseSessionRegistry::getSessionCount)
+                .description("SSE sessions held by this node, connected or waiting for a reconnect")
+                .register(registry);
+
+        SessionEmitCounters counters = sessionFactory.getCounters();
+        for (Sinks.EmitResult result : Sinks.EmitResult.values()) {
+            FunctionCounter.builder("sse.emit", counters, c -> c.getEmitCount(result))
+                    .tag("result", result.name())
+                    .description("Events handed to SSE sessions by emit result")
+                    .register(registry);
+        }
+        FunctionCounter.builder("sse.events.dropped", counters, SessionEmitCounters::getDroppedCount)
+                .description("Events dropped by the slow-consumer overflow policy")
+                .register(registry);
+        FunctionCounter.builder("sse.events.conflated", counters, SessionEmitCounters::getConflatedCount)
+                .description("Queued progress events replaced by a newer one for the same trackingId")
+                .register(registry);
+
+        Gauge.builder("tracking.active", trackingRegistry, TrackingRegistry::getActiveCount)
+                .description("TrackingIds with a live poll chain or awaiting a callback")
+                .register(registry);
+
+        Gauge.builder("polling.scheduler.pending", pollScheduler, PollScheduler::getPendingCount)
+                .description("Polls waiting on the timing wheel")
+                .register(registry);
+        FunctionCounter.builder("polling.scheduler.fired", pollScheduler, PollScheduler::getFiredCount)
+                .register(registry);
+        FunctionCounter.builder("polling.scheduler.late", pollScheduler, PollScheduler::getLateFireCount)
+                .description("Polls that fired more than one tick after their deadline")
+                .register(registry);
+
+        FunctionCounter.builder("polling.events.suppressed", changeDetectionCounters, ChangeDetectionCounters::getNotModifiedCount)
+                .tag("reason", "not_modified")
+                .description("Polls that sent no event because upstream answered 304")
+                .register(registry);
+        FunctionCounter.builder("polling.events.suppressed", changeDetectionCounters, ChangeDetectionCounters::getUnchangedCount)
+                .tag("reason", "unchanged")
+                .description("Polls that sent no event because the status fingerprint did not change")
+                .register(registry);
+        FunctionCounter.builder("polling.bytes.saved", changeDetectionCounters, ChangeDetectionCounters::getUpstreamBytesSaved)
+                .tag("direction", "upstream")
+                .baseUnit("bytes")
+                .description("Status bodies not transferred thanks to 304 Not Modified")
+                .register(registry);
+        FunctionCounter.builder("polling.bytes.saved", changeDetectionCounters, ChangeDetectionCounters::getDownstreamBytesSaved)
+                .tag("direction", "downstream")
+                .baseUnit("bytes")
+                .description("SSE event bytes not sent because the status did not change")
+                .register(registry);
+
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("upstream.circuit.state", upstreamCircuitBreaker, breaker -> breaker.getState() == state ? 1 : 0)
+                    .tag("state", state.name())
+                    .description("1 for the state the upstream circuit breaker is in")
+                    .register(registry);
+        }
+        FunctionCounter.builder("upstream.circuit.opened", upstreamCircuitBreaker, CircuitBreaker::getOpenedCount)
+                .description("Times the upstream circuit breaker opened")
+                .register(registry);
+        FunctionCounter.builder("upstream.circuit.rejected", upstreamCircuitBreaker, CircuitBreaker::getRejectedCount)
+                .description("Polls paused without calling upstream because the breaker was open or probing")
+                .register(registry);
+        Gauge.builder("upstream.retry.budget.tokens", upstreamRetryBudget, RetryBudget::getTokens)
+                .description("Retries the upstream retry budget currently allows")
+                .register(registry);
+        FunctionCounter.builder("upstream.retries", upstreamRetryBudget, RetryBudget::getRetryCount)
+                .description("Transient upstream failures retried within the budget")
+                .register(registry);
+        FunctionCounter.builder("upstream.retries.exhausted", upstreamRetryBudget, RetryBudget::getExhaustedCount)
+                .description("Transient upstream failures not retried because the budget was spent")
+                .register(registry);
+
+        Gauge.builder("admission.connections.open", admissionControl, AdmissionControl::getOpenConnections)
+                .description("SSE streams counted against admission.max-connections")
+                .register(registry);
+        Gauge.builder("admission.trackings.in.flight", admissionControl, AdmissionControl::getInFlightTrackings)
+                .description("Tracking chains counted against admission.max-in-flight-polls")
+                .register(registry);
+        FunctionCounter.builder("admission.rejected", admissionControl, AdmissionControl::getRateLimitedStartCount)
+                .tag("reason", "start_rate")
+                .description("Requests shed by admission control")
+                .register(registry);
+        FunctionCounter.builder("admission.rejected", admissionControl, AdmissionControl::getRejectedTrackingCount)
+                .tag("reason", "in_flight_polls")
+                .description("Requests shed by admission control")
+                .register(registry);
+        FunctionCounter.builder("admission.rejected", admissionControl, AdmissionControl::getRejectedConnectionCount)
+                .tag("reason", "connections")
+                .description("Requests shed by admission control")
+                .register(registry);
+    }
+}
@@ -0,0 +1,139 @@
+package com.realtime.events.realtimeEvents.persistence;
+
+import com.realtime.events.realtimeEvents.admission.AdmissionControl;
+import com.realtime.events.realtimeEvents.services.ExternalProcessService;
+import com.realtime.events.realtimeEvents.services.TrackingStatusHandler;
+import com.realtime.events.realtimeEvents.sessions.SseSessionRegistry;
+import com.realtime.events.realtimeEvents.tracking.TrackedPoll;
+import com.realtime.events.realtimeEvents.tracking.TrackingMode;
+import com.realtime.events.realtimeEvents.tracking.TrackingRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reloads the persisted polling chains once the application is ready and resumes each at
+ * its next attempt.
+ * <p>
+ * After an outage most chains are overdue at once, so resumed polls are released at no
+ * more than {@code tracking.persistence.resume-rate-per-second}, earliest due first,
+ * instead of hitting upstream in one burst. The sessions that started a chain are
+ * recreated detached: events keep collecting in their replay rings until the clients
+ * reconnect, or until the idle TTL evicts them and the chain stops. Restoring does not
+ * claim the sessions in a cluster, so events for a session a peer serves still go there.
+ */
+@Component
+@Slf4j
+public class TrackingResumer {
+
+    private final TrackingStateRepository repository;
+    private final TrackingRegistry trackingRegistry;
+    private final SseSessionRegistry sessionRegistry;
+    private final ExternalProcessService processService;
+    private final TrackingStatusHandler statusHandler;
+    private final AdmissionControl admissionControl;
+    private final Duration spacing;
+
+    public TrackingResumer(TrackingStateRepository repository, TrackingRegistry trackingRegistry,
+                           SseSessionRegistry sessionRegistry, ExternalProcessService processService,
+                           TrackingStatusHandler statusHandler, AdmissionControl admissionControl,
+                           @Value("${tracking.persistence.resume-rate-per-second:50}") int resumeRatePerSecond) {
+        this.repository = repository;
+        this.trackingRegistry = trackingRegistry;
+        this.sessionRegistry = sessionRegistry;
+        this.processService = processService;
+        this.statusHandler = statusHandler;
+        this.admissionControl = admissionControl;
+        this.spacing = Duration.ofSeconds(1).dividedBy(Math.max(1, resumeRatePerSecond));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        List<TrackingState> states = repository.findAllByOrderByNextDueAtAsc();
+        if (states.isEmpty()) {
+            return;
+        }
+        List<TrackingState> polling = states.stream().filter(state -> state.getMode() != TrackingMode.CALLBACK).toList();
+        List<Duration> delays = resumeDelays(polling.stream().map(TrackingState::getNextDueAt).toList(), Instant.now(), spacing);
+        int resumed = 0;
+        for (TrackingState state : states) {
+            if (state.getMode() == TrackingMode.CALLBACK) {
+                TrackedPoll tracked = restore(state);
+                if (tracked != null) {
+                    // The deadline still counts from the ACK before the restart
+                    statusHandler.awaitCallback(tracked);
+                    resumed++;
+                }
+            }
+        }
+        for (int i = 0; i < polling.size(); i++) {
+            TrackedPoll tracked = restore(polling.get(i));
+            if (tracked != null) {
+                int attemptIndex = polling.get(i).getAttemptIndex();
+                // Restoring marked the chain dirty; without this the next flush would persist attempt 0
+                trackingRegistry.recordNextAttempt(tracked, attemptIndex, delays.get(i));
+                processService.resumePolling(tracked, attemptIndex, delays.get(i));
+                resumed++;
+            }
+        }
+        log.info("Resumed {} of {} persisted trackings, last poll released in {}", resumed, states.size(),
+                delays.isEmpty() ? Duration.ZERO : delays.get(delays.size() - 1));
+    }
+
+    /**
+     * Re-registers the chain with its sessions.
+     *
+     * @return the restored poller, or {@code null} if the trackingId was started again since boot
+     */
+    private TrackedPoll restore(TrackingState state) {
+        TrackedPoll tracked = null;
+        for (String sessionId : state.getSessionIds().split(",")) {
+            if (!sessionId.isBlank()) {
+                sessionRegistry.restore(sessionId);
+                tracked = trackingRegistry.subscribe(state.getTrackingId(), sessionId);
+            }
+        }
+        if (tracked == null || !tracked.tryStart()) {
+            return null;
+        }
+        // Already admitted before the restart, so counted even above the cap
+        admissionControl.admitTrackingUnchecked();
+        tracked.setMode(state.getMode() != null ? state.getMode() : TrackingMode.POLLING);
+        tracked.setUserId(state.getUserId());
+        if (state.getAcknowledgedAt() != null) {
+            tracked.restoreAcknowledgedAt(state.getAcknowledgedAt());
+        }
+        if (state.getLastStatus() != null && state.getLastFingerprint() != null) {
+            tracked.restoreLastStatus(state.getLastStatus(), state.getLastFingerprint());
+        }
+        tracked.setLastBody(state.getEtag(), 0);
+        return tracked;
+    }
+
+    /**
+     * Delay before each resumed poll: never before it is due, and at least {@code spacing}
+     * after the previous one. {@code dueTimes} must be sorted, {@code null} meaning due now.
+     */
+    static List<Duration> resumeDelays(List<Instant> dueTimes, Instant now, Duration spacing) {
+        List<Duration> delays = new ArrayList<>(dueTimes.size());
+        Duration previous = null;
+        for (Instant dueAt : dueTimes) {
+            Duration untilDue = dueAt == null || dueAt.isBefore(now) ? Duration.ZERO : Duration.between(now, dueAt);
+            Duration delay = previous == null ? untilDue : max(untilDue, previous.plus(spacing));
+            delays.add(delay);
+            previous = delay;
+        }
+        return delays;
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
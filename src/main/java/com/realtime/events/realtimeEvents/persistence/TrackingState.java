@@ -0,0 +1,78 @@
+package com.realtime.events.realtimeEvents.persistence;
+
+import com.realtime.events.realtimeEvents.tracking.TrackingMode;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of one in-flight polling chain, enough to pick it up again after a restart.
+ * The id is assigned, so the snapshot tells Spring Data whether it is new: a snapshot built
+ * by the store is always persisted, never merged, which would read the row first.
+ */
+@Entity
+@Table(name = "tracking_state", indexes = @Index(name = "idx_tracking_state_next_due_at", columnList = "nextDueAt"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class TrackingState implements Persistable<String> {
+
+    static final int SESSION_IDS_LENGTH = 4000;
+
+    @Id
+    private String trackingId;
+
+    /**
+     * Comma-separated ids of the sessions that started the tracking, as many as fit.
+     */
+    @Column(length = SESSION_IDS_LENGTH)
+    private String sessionIds;
+
+    private String userId;
+
+    @Enumerated(EnumType.STRING)
+    private TrackingMode mode;
+
+    private int attemptIndex;
+
+    private Instant nextDueAt;
+
+    private Instant acknowledgedAt;
+
+    private String lastStatus;
+
+    /**
+     * Fingerprint of the last status sent, so a resumed chain does not send it again.
+     */
+    private Long lastFingerprint;
+
+    private String etag;
+
+    private Instant updatedAt;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean isNew = true;
+
+    @Override
+    public String getId() {
+        return trackingId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
@@ -0,0 +1,26 @@
+package com.realtime.events.realtimeEvents.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TrackingStateRepository extends JpaRepository<TrackingState, String> {
+
+    List<TrackingState> findAllByOrderByNextDueAtAsc();
+
+    /**
+     * Drops the rows of {@code trackingIds} and inserts {@code states} in their place, in one
+     * transaction: a bulk delete plus batched inserts, with no read per row as a merge would do.
+     */
+    @Transactional
+    default void replaceAll(Collection<String> trackingIds, List<TrackingState> states) {
+        if (!trackingIds.isEmpty()) {
+            deleteAllByIdInBatch(trackingIds);
+        }
+        if (!states.isEmpty()) {
+            saveAll(states);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.realtime.events.realtimeEvents.persistence;
+
+import com.realtime.events.realtimeEvents.tracking.TrackedPoll;
+import com.realtime.events.realtimeEvents.tracking.TrackingRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind persistence of the in-flight polling chains.
+ * <p>
+ * The poll path only marks a chain dirty, one map put, and never touches JDBC. A periodic
+ * flush snapshots every dirty chain and writes the batch in one go, so however many
+ * events a chain published since the last flush, it costs one row write. Chains that
+ * ended are deleted. A chain whose start was not acknowledged yet is not written: the
+ * process may never have started upstream, so there is nothing to resume.
+ * <p>
+ * A crash loses at most one flush interval of changes; a resumed chain then polls an
+ * attempt early or late, which the status API tolerates. When a batch fails its chains are
+ * written one by one, so a row the database keeps refusing is dropped after
+ * {@link #MAX_WRITE_ATTEMPTS} flushes instead of holding back every other chain.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrackingStateStore {
+
+    static final int MAX_WRITE_ATTEMPTS = 3;
+
+    private final TrackingStateRepository repository;
+    private final TrackingRegistry trackingRegistry;
+
+    private final Map<String, TrackedPoll> dirty = new ConcurrentHashMap<>();
+    private final Map<String, Integer> failedWrites = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void trackRegistryChanges() {
+        trackingRegistry.onChange(this::markDirty);
+        trackingRegistry.onEnd(this::markDirty);
+    }
+
+    /**
+     * Queues the chain for the next flush; the newest poller of a trackingId wins.
+     */
+    public void markDirty(TrackedPoll tracked) {
+        // An ended poller that a fresh one already replaced leaves the row to its successor
+        if (tracked.isCancelled() && trackingRegistry.find(tracked.getTrackingId()) != null) {
+            return;
+        }
+        dirty.put(tracked.getTrackingId(), tracked);
+    }
+
+    @Scheduled(fixedDelayString = "${tracking.persistence.flush-interval-ms:500}")
+    @PreDestroy
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<TrackedPoll> written = new ArrayList<>();
+        List<TrackingState> upserts = new ArrayList<>();
+        List<String> replaced = new ArrayList<>();
+        int deletes = 0;
+        for (String trackingId : dirty.keySet()) {
+            TrackedPoll tracked = dirty.remove(trackingId);
+            if (tracked == null) {
+                continue;
+            }
+            written.add(tracked);
+            if (tracked.isCancelled()) {
+                replaced.add(trackingId);
+                deletes++;
+            } else if (tracked.getAcknowledgedAt() != null) {
+                replaced.add(trackingId);
+                upserts.add(toState(tracked));
+            }
+        }
+
+        try {
+            // Existing rows are replaced rather than merged, so an update costs no read
+            repository.replaceAll(replaced, upserts);
+            log.debug("Persisted {} tracking states, deleted {}", upserts.size(), deletes);
+            if (!failedWrites.isEmpty()) {
+                written.forEach(tracked -> failedWrites.remove(tracked.getTrackingId()));
+            }
+        } catch (DataAccessException e) {
+            log.warn("Persisting {} tracking states in one batch failed, writing them one by one", written.size(), e);
+            written.forEach(this::writeOne);
+        }
+    }
+
+    public int getPendingCount() {
+        return dirty.size();
+    }
+
+    private void writeOne(TrackedPoll tracked) {
+        String trackingId = tracked.getTrackingId();
+        try {
+            // Rebuilt, since the failed batch may already have flagged the snapshot as persisted
+            repository.replaceAll(List.of(trackingId), tracked.isCancelled() ? List.of() : List.of(toState(tracked)));
+            failedWrites.remove(trackingId);
+        } catch (DataAccessException e) {
+            int attempts = failedWrites.merge(trackingId, 1, Integer::sum);
+            if (attempts >= MAX_WRITE_ATTEMPTS) {
+                failedWrites.remove(trackingId);
+                log.error("Dropping tracking state of trackingId={} after {} failed writes", trackingId, attempts, e);
+            } else {
+                // Anything marked dirty since holds newer state
+                dirty.putIfAbsent(trackingId, tracked);
+            }
+        }
+    }
+
+    private static TrackingState toState(TrackedPoll tracked) {
+        TrackingState state = new TrackingState();
+        state.setTrackingId(tracked.getTrackingId());
+        state.setSessionIds(joinSessionIds(tracked));
+        state.setUserId(tracked.getUserId());
+        state.setMode(tracked.getMode());
+        state.setAttemptIndex(tracked.getAttemptIndex());
+        state.setNextDueAt(tracked.getNextDueAt());
+        state.setAcknowledgedAt(tracked.getAcknowledgedAt());
+        state.setLastStatus(tracked.getLastStatus());
+        state.setLastFingerprint(tracked.getLastFingerprint());
+        state.setEtag(tracked.getEtag());
+        state.setUpdatedAt(Instant.now());
+        return state;
+    }
+
+    /**
+     * Joins the chain's session ids, keeping only as many as fit the column. Sessions left
+     * out are not re-subscribed after a restart, but the chain itself still is.
+     */
+    static String joinSessionIds(TrackedPoll tracked) {
+        StringBuilder joined = new StringBuilder();
+        int skipped = 0;
+        for (String sessionId : tracked.getSessionIds()) {
+            int length = joined.length() + (joined.isEmpty() ? 0 : 1) + sessionId.length();
+            if (length > TrackingState.SESSION_IDS_LENGTH) {
+                skipped++;
+                continue;
+            }
+            if (!joined.isEmpty()) {
+                joined.append(',');
+            }
+            joined.append(sessionId);
+        }
+        if (skipped > 0) {
+            log.debug("trackingId={} has more sessions than can be persisted, {} will not be resumed",
+                    tracked.getTrackingId(), skipped);
+        }
+        return joined.toString();
+    }
+}
@@ -0,0 +1,132 @@
+package com.realtime.events.realtimeEvents.polling;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Exponential backoff with decorrelated jitter, shaped by how long trackings have actually
+ * taken to reach a terminal state.
+ * <p>
+ * Until enough completions were observed every delay is drawn from
+ * {@code [base, 3 * previousDelay]} and capped, which spreads trackings started together
+ * instead of polling them in lockstep. Afterwards the policy waits out the quiet period
+ * before the typical completion window (p10 of the observed time-to-terminal), polls densely
+ * inside the window (up to p90) and backs off again in the long tail.
+ * <p>
+ * Observations go into a fixed histogram of {@link #BUCKET_MILLIS} wide buckets; the window
+ * is recomputed every {@link #REFRESH_EVERY} observations so the poll path only reads two
+ * volatile fields.
+ */
+public class AdaptivePollingIntervalPolicy implements PollingIntervalPolicy {
+
+    static final long BUCKET_MILLIS = 250;
+    static final int REFRESH_EVERY = 32;
+    private static final int BUCKETS = 480; // two minutes
+    private static final int STEPS_PER_WINDOW = 8;
+
+    private final long baseMillis;
+    private final long capMillis;
+    private final long maxElapsedMillis;
+    private final int minSamples;
+    private final Supplier<RandomGenerator> random;
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+    private final AtomicLong samples = new AtomicLong();
+    private volatile long windowStartMillis = -1;
+    private volatile long windowEndMillis = -1;
+
+    public AdaptivePollingIntervalPolicy(Duration base, Duration cap, Duration maxElapsed, int minSamples,
+                                         Supplier<RandomGenerator> random) {
+        this.baseMillis = base.toMillis();
+        this.capMillis = cap.toMillis();
+        this.maxElapsedMillis = maxElapsed.toMillis();
+        this.minSamples = minSamples;
+        this.random = random;
+    }
+
+    @Override
+    public Duration nextDelay(PollContext context) {
+        long elapsed = context.elapsed().toMillis();
+        if (elapsed >= maxElapsedMillis) {
+            return null;
+        }
+
+        long delay;
+        long start = windowStartMillis;
+        long end = windowEndMillis;
+        if (start >= 0 && elapsed < start) {
+            // Nothing usually finishes this early: sleep until the window opens, slightly jittered
+            delay = Math.min(capMillis, Math.max(baseMillis, start - elapsed + jitter(baseMillis)));
+        } else if (start >= 0 && elapsed <= end) {
+            long step = Math.max(baseMillis, (end - start) / STEPS_PER_WINDOW);
+            delay = between(baseMillis, step);
+        } else {
+            delay = decorrelatedJitter(context.previousDelay());
+        }
+
+        delay = Math.min(delay, maxElapsedMillis - elapsed);
+        return PollingIntervalPolicy.honorRetryAfter(Duration.ofMillis(Math.max(delay, 1)), context.retryAfter());
+    }
+
+    @Override
+    public void recordTerminal(Duration timeToTerminal) {
+        int bucket = (int) Math.min(BUCKETS - 1, Math.max(0, timeToTerminal.toMillis() / BUCKET_MILLIS));
+        histogram.incrementAndGet(bucket);
+        // Each caller gets its own count, so exactly one of them sees each refresh point
+        long count = samples.incrementAndGet();
+        if (count >= minSamples && count % REFRESH_EVERY == 0 || count == minSamples) {
+            refreshWindow();
+        }
+    }
+
+    long getWindowStartMillis() {
+        return windowStartMillis;
+    }
+
+    long getWindowEndMillis() {
+        return windowEndMillis;
+    }
+
+    private void refreshWindow() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return;
+        }
+        long p10 = quantile(counts, total, 0.10);
+        long p90 = quantile(counts, total, 0.90);
+        windowEndMillis = p90;
+        windowStartMillis = p10;
+    }
+
+    private static long quantile(long[] counts, long total, double q) {
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i * BUCKET_MILLIS;
+            }
+        }
+        return (counts.length - 1) * BUCKET_MILLIS;
+    }
+
+    private long decorrelatedJitter(Duration previousDelay) {
+        long previous = previousDelay == null ? baseMillis : previousDelay.toMillis();
+        return Math.min(capMillis, between(baseMillis, Math.max(baseMillis, previous * 3)));
+    }
+
+    private long jitter(long bound) {
+        return random.get().nextLong(bound + 1);
+    }
+
+    private long between(long low, long high) {
+        return high <= low ? low : random.get().nextLong(low, high + 1);
+    }
+}
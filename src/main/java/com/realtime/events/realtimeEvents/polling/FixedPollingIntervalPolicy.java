@@ -0,0 +1,24 @@
+package com.realtime.events.realtimeEvents.polling;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Walks the configured {@code polling.intervals} list and times out once it is exhausted.
+ */
+public class FixedPollingIntervalPolicy implements PollingIntervalPolicy {
+
+    private final List<Duration> intervals;
+
+    public FixedPollingIntervalPolicy(List<Duration> intervals) {
+        this.intervals = List.copyOf(intervals);
+    }
+
+    @Override
+    public Duration nextDelay(PollContext context) {
+        if (context.attemptIndex() >= intervals.size()) {
+            return null;
+        }
+        return PollingIntervalPolicy.honorRetryAfter(intervals.get(context.attemptIndex()), context.retryAfter());
+    }
+}
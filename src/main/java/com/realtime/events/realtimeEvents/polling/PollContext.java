@@ -0,0 +1,14 @@
+package com.realtime.events.realtimeEvents.polling;
+
+import java.time.Duration;
+
+/**
+ * What a {@link PollingIntervalPolicy} knows about a tracking when picking the next delay.
+ *
+ * @param attemptIndex  number of polls already made
+ * @param elapsed       time since the start API acknowledged the process
+ * @param previousDelay delay used before the last poll, {@code null} before the first one
+ * @param retryAfter    {@code Retry-After} sent with the last status response, if any
+ */
+public record PollContext(int attemptIndex, Duration elapsed, Duration previousDelay, Duration retryAfter) {
+}
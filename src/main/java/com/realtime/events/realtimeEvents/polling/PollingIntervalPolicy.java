@@ -0,0 +1,28 @@
+package com.realtime.events.realtimeEvents.polling;
+
+import java.time.Duration;
+
+/**
+ * Decides when a tracking is polled next.
+ */
+public interface PollingIntervalPolicy {
+
+    /**
+     * @return the delay before the next poll, or {@code null} to give up with a timeout
+     */
+    Duration nextDelay(PollContext context);
+
+    /**
+     * Reports how long a tracking took from ACK to its terminal state, whether the state was
+     * polled or pushed.
+     */
+    default void recordTerminal(Duration timeToTerminal) {
+    }
+
+    /**
+     * An upstream {@code Retry-After} always wins over a shorter computed delay.
+     */
+    static Duration honorRetryAfter(Duration delay, Duration retryAfter) {
+        return retryAfter != null && retryAfter.compareTo(delay) > 0 ? retryAfter : delay;
+    }
+}
@@ -0,0 +1,79 @@
+package com.realtime.events.realtimeEvents.scheduling;
+
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hashed timing wheel used to schedule status polls.
+ * <p>
+ * A single daemon thread advances the wheel and runs expired tasks inline, so tasks must
+ * only kick off non-blocking work (e.g. subscribe to a WebClient call) and return.
+ * Scheduling is O(1) and costs one small timeout object per pending poll, which keeps
+ * CPU and memory flat with 100k+ tracked ids.
+ */
+@Slf4j
+public class PollScheduler {
+
+    private final HashedWheelTimer timer;
+    private final long tickNanos;
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder lateFires = new LongAdder();
+
+    public PollScheduler(Duration tickDuration, int ticksPerWheel) {
+        this.tickNanos = tickDuration.toNanos();
+        this.timer = new HashedWheelTimer(new DefaultThreadFactory("poll-wheel", true),
+                tickNanos, TimeUnit.NANOSECONDS, ticksPerWheel);
+    }
+
+    public Disposable schedule(Runnable task, Duration delay) {
+        long deadline = System.nanoTime() + delay.toNanos();
+        Timeout timeout = timer.newTimeout(t -> fire(task, deadline), delay.toNanos(), TimeUnit.NANOSECONDS);
+        return new Disposable() {
+            @Override
+            public void dispose() {
+                timeout.cancel();
+            }
+
+            @Override
+            public boolean isDisposed() {
+                return timeout.isCancelled() || timeout.isExpired();
+            }
+        };
+    }
+
+    private void fire(Runnable task, long deadline) {
+        fired.increment();
+        // The wheel only guarantees tick precision; anything beyond one tick means the worker fell behind
+        if (System.nanoTime() - deadline > tickNanos) {
+            lateFires.increment();
+        }
+        try {
+            task.run();
+        } catch (Throwable e) {
+            log.error("Scheduled poll task failed", e);
+        }
+    }
+
+    public long getPendingCount() {
+        return timer.pendingTimeouts();
+    }
+
+    public long getFiredCount() {
+        return fired.sum();
+    }
+
+    public long getLateFireCount() {
+        return lateFires.sum();
+    }
+
+    public void stop() {
+        timer.stop();
+    }
+}
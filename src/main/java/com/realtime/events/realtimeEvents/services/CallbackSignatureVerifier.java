@@ -0,0 +1,59 @@
+package com.realtime.events.realtimeEvents.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Verifies the HMAC-SHA256 signature upstream puts on pushed status callbacks. Verification
+ * is skipped when no {@code callback.hmac-secret} is configured.
+ */
+@Component
+public class CallbackSignatureVerifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String PREFIX = "sha256=";
+
+    private final SecretKeySpec key;
+
+    public CallbackSignatureVerifier(@Value("${callback.hmac-secret:}") String secret) {
+        this.key = secret.isEmpty() ? null : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    public boolean isEnabled() {
+        return key != null;
+    }
+
+    /**
+     * @param signature hex encoded HMAC of the raw body, optionally prefixed with {@code sha256=}
+     */
+    public boolean verify(byte[] body, String signature) {
+        if (key == null) {
+            return true;
+        }
+        if (signature == null || signature.isBlank()) {
+            return false;
+        }
+        String hex = signature.startsWith(PREFIX) ? signature.substring(PREFIX.length()) : signature;
+        byte[] expected;
+        byte[] actual;
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            expected = mac.doFinal(body);
+            actual = HexFormat.of().parseHex(hex.trim());
+        } catch (IllegalArgumentException e) {
+            return false;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+        }
+        // constant time comparison so the signature can't be guessed byte by byte
+        return MessageDigest.isEqual(expected, actual);
+    }
+}
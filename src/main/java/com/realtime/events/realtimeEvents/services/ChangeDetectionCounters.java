@@ -0,0 +1,50 @@
+package com.realtime.events.realtimeEvents.services;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Polls that produced no event because nothing changed, and the bytes that saved.
+ */
+@Component
+public class ChangeDetectionCounters {
+
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder unchanged = new LongAdder();
+    private final LongAdder upstreamBytesSaved = new LongAdder();
+    private final LongAdder downstreamBytesSaved = new LongAdder();
+
+    /**
+     * Upstream answered {@code 304}: its body was not transferred and no event was sent.
+     */
+    void notModified(long upstreamBytes, long downstreamBytes) {
+        notModified.increment();
+        upstreamBytesSaved.add(upstreamBytes);
+        downstreamBytesSaved.add(downstreamBytes);
+    }
+
+    /**
+     * The status was read but fingerprinted the same as the last event, so none was sent.
+     */
+    void unchanged(long downstreamBytes) {
+        unchanged.increment();
+        downstreamBytesSaved.add(downstreamBytes);
+    }
+
+    public long getNotModifiedCount() {
+        return notModified.sum();
+    }
+
+    public long getUnchangedCount() {
+        return unchanged.sum();
+    }
+
+    public long getUpstreamBytesSaved() {
+        return upstreamBytesSaved.sum();
+    }
+
+    public long getDownstreamBytesSaved() {
+        return downstreamBytesSaved.sum();
+    }
+}
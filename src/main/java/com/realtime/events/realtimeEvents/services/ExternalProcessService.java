@@ -0,0 +1,21 @@
+package com.realtime.events.realtimeEvents.services;
+
+import com.realtime.events.realtimeEvents.dto.InquiryApiRequest;
+import com.realtime.events.realtimeEvents.tracking.TrackedPoll;
+
+import java.time.Duration;
+
+/**
+ * Starts an upstream process for a session and tracks it to a terminal state. The
+ * implementation is picked with {@code realtime.service}.
+ */
+public interface ExternalProcessService {
+
+    void startExternalProcess(String sessionId, InquiryApiRequest input);
+
+    /**
+     * Continues a polling chain restored after a restart: poll number {@code attemptIndex}
+     * runs after {@code delay}, then the chain carries on as if it had never stopped.
+     */
+    void resumePolling(TrackedPoll tracked, int attemptIndex, Duration delay);
+}
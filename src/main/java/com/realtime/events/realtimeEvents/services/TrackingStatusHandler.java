@@ -0,0 +1,271 @@
+package com.realtime.events.realtimeEvents.services;
+
+import com.realtime.events.realtimeEvents.admission.AdmissionControl;
+import com.realtime.events.realtimeEvents.admission.AdmissionRejectedException;
+import com.realtime.events.realtimeEvents.cluster.SessionEventBus;
+import com.realtime.events.realtimeEvents.dto.InquiryApiRequest;
+import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
+import com.realtime.events.realtimeEvents.polling.PollContext;
+import com.realtime.events.realtimeEvents.polling.PollingIntervalPolicy;
+import com.realtime.events.realtimeEvents.scheduling.PollScheduler;
+import com.realtime.events.realtimeEvents.sessions.SseFrame;
+import com.realtime.events.realtimeEvents.sessions.SseFrameEncoder;
+import com.realtime.events.realtimeEvents.status.StatusClassification;
+import com.realtime.events.realtimeEvents.tracking.TrackedPoll;
+import com.realtime.events.realtimeEvents.tracking.TrackingMode;
+import com.realtime.events.realtimeEvents.tracking.TrackingRegistry;
+import com.realtime.events.realtimeEvents.upstream.StatusPollResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Start and status handling shared by the polling services and the upstream callback
+ * endpoint, so a status is treated the same no matter how it arrived.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrackingStatusHandler {
+
+    private final SessionEventBus eventBus;
+    private final TrackingRegistry trackingRegistry;
+    private final AdmissionControl admissionControl;
+    private final SseFrameEncoder frameEncoder;
+    private final WebClient webClient;
+    private final PollingIntervalPolicy pollingIntervalPolicy;
+    private final MeterRegistry meterRegistry;
+    private final ChangeDetectionCounters changeDetectionCounters;
+    private final PollScheduler pollScheduler;
+
+    @Value("${external.api.start-uri}")
+    private String startApiUri;
+
+    @Value("${tracking.default-mode:POLLING}")
+    private TrackingMode defaultMode;
+
+    @Value("${callback.fallback-interval-seconds:30}")
+    private long fallbackIntervalSeconds;
+
+    @Value("${callback.fallback-max-attempts:20}")
+    private int fallbackMaxAttempts;
+
+    @Value("${callback.timeout-seconds:600}")
+    private long callbackTimeoutSeconds;
+
+    @Value("${polling.max-paused-seconds:600}")
+    private long maxPausedSeconds;
+
+    /**
+     * Subscribes the session to the trackingId and, if no one is tracking it yet, calls the
+     * start API. {@code startPolling} runs after the ACK unless the mode is pure callback,
+     * which waits for its callback instead (see {@link #awaitCallback}).
+     *
+     * @throws AdmissionRejectedException if the user is over the start rate, or a new chain
+     *                                     would exceed the in-flight cap
+     */
+    public void start(String sessionId, InquiryApiRequest input, Consumer<TrackedPoll> startPolling) {
+        if (!eventBus.isKnown(sessionId)) {
+            throw new IllegalArgumentException("SSE session not found for sessionId: " + sessionId);
+        }
+        // Only a start that can go ahead is charged to the user's rate limit
+        admissionControl.admitStart(input.getUserId());
+
+        // Joining a running chain costs no extra polls, so only a new chain needs a permit
+        boolean admitted = trackingRegistry.find(input.getTrackingId()) == null;
+        if (admitted) {
+            admissionControl.admitTracking();
+        }
+        TrackedPoll tracked = trackingRegistry.subscribe(input.getTrackingId(), sessionId);
+        if (!tracked.tryStart()) {
+            if (admitted) {
+                admissionControl.releaseTracking();
+            }
+            log.debug("sessionId={} joined existing poller for trackingId={}", sessionId, input.getTrackingId());
+            eventBus.publish(sessionId, frameEncoder.encode(
+                    new InquiryApiResponse("ACK", "Joined existing tracking", input.getTrackingId())));
+            // The others already have the current status; the new session gets it now
+            SseFrame current = tracked.getLastFrame();
+            if (current != null) {
+                eventBus.publish(sessionId, current);
+            }
+            return;
+        }
+        if (!admitted) {
+            admissionControl.admitTrackingUnchecked();
+        }
+        tracked.setMode(input.getMode() != null ? input.getMode() : defaultMode);
+        tracked.setUserId(input.getUserId());
+
+        webClient.post()
+                .uri(startApiUri)
+                .bodyValue(input)
+                .retrieve()
+                .bodyToMono(String.class)
+                .doOnNext(response -> {
+                    log.debug("Received ACK from start API: {}", response);
+                    tracked.markAcknowledged();
+                    trackingRegistry.publish(tracked, new InquiryApiResponse("ACK", "Process started", input.getTrackingId()));
+                    if (tracked.getMode() != TrackingMode.CALLBACK) {
+                        startPolling.accept(tracked);
+                    } else {
+                        awaitCallback(tracked);
+                    }
+                })
+                .doOnError(error -> {
+                    log.error("Failed to call start API", error);
+                    trackingRegistry.finish(tracked,
+                            new InquiryApiResponse("ERROR", "Start API failed: " + error.getMessage(), input.getTrackingId()));
+                })
+                .subscribe();
+    }
+
+    /**
+     * Publishes a classified status to every subscriber and ends tracking on terminal states.
+     * An in-progress status that fingerprints the same as the last one sent is dropped.
+     *
+     * @return {@code true} if tracking is finished and no further poll should be scheduled
+     */
+    public boolean handleStatus(TrackedPoll tracked, StatusClassification classification) {
+        if (!classification.isTerminal()
+                && classification.isSameAs(tracked.getLastStatus(), tracked.getLastFingerprint())) {
+            changeDetectionCounters.unchanged(downstreamBytes(tracked));
+            return tracked.isCancelled();
+        }
+        tracked.setLastFingerprint(classification.fingerprint());
+        InquiryApiResponse response = classification.toResponse(tracked.getTrackingId());
+        if (!classification.isTerminal()) {
+            trackingRegistry.publish(tracked, response);
+            return tracked.isCancelled();
+        }
+        Duration elapsed = tracked.getElapsed();
+        if (elapsed != null) {
+            pollingIntervalPolicy.recordTerminal(elapsed);
+            Timer.builder("tracking.time.to.terminal")
+                    .description("Time from the start API ACK to a terminal status")
+                    .tag("status", response.getStatus())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(elapsed);
+        }
+        log.debug("Tracking stopped after terminal state: {}", response.getStatus());
+        trackingRegistry.finish(tracked, response);
+        return true;
+    }
+
+    /**
+     * Like {@link #handleStatus} for a poll, but a throttled or deferred poll publishes nothing
+     * and only pushes the next attempt out by its {@code Retry-After}, and a {@code 304}
+     * publishes nothing at all. A deferred poll reached upstream and failed transiently, so
+     * it uses up its attempt like any other; paused polls go to {@link #handlePause} instead.
+     */
+    public boolean handlePollResult(TrackedPoll tracked, StatusPollResult result) {
+        tracked.clearPaused();
+        tracked.setRetryAfter(result.retryAfter());
+        if (result.isNotModified()) {
+            changeDetectionCounters.notModified(tracked.getLastBodyBytes(), downstreamBytes(tracked));
+            return tracked.isCancelled();
+        }
+        if (result.isThrottled()) {
+            log.debug("Upstream throttled trackingId={}, retrying after {}", tracked.getTrackingId(), result.retryAfter());
+            return tracked.isCancelled();
+        }
+        if (result.isDeferred()) {
+            return tracked.isCancelled();
+        }
+        tracked.setLastBody(result.etag(), result.bodyBytes());
+        return handleStatus(tracked, result.classification());
+    }
+
+    /**
+     * Handles a poll the circuit breaker kept from upstream. The attempt is repeated rather
+     * than used up, so chains wait out an outage; one that stays paused for
+     * {@code polling.max-paused-seconds} (zero or less for no limit) times out.
+     *
+     * @return {@code true} if tracking is finished and the attempt should not be repeated
+     */
+    public boolean handlePause(TrackedPoll tracked) {
+        Duration paused = tracked.markPaused();
+        if (maxPausedSeconds > 0 && paused.compareTo(Duration.ofSeconds(maxPausedSeconds)) >= 0) {
+            handleTimeout(tracked);
+            return true;
+        }
+        return tracked.isCancelled();
+    }
+
+    public void handleError(TrackedPoll tracked, Throwable error) {
+        String trackingId = tracked.getTrackingId();
+        if (error instanceof WebClientResponseException wcre &&
+                (wcre.getStatusCode().is4xxClientError() || wcre.getStatusCode().is5xxServerError())) {
+            log.error("Polling failed with response error: {}", wcre.getStatusCode());
+            trackingRegistry.finish(tracked, new InquiryApiResponse("ERROR", "Polling failed: " + wcre.getMessage(), trackingId));
+        } else {
+            log.error("Polling exception occurred", error);
+            trackingRegistry.finish(tracked, new InquiryApiResponse("ERROR", "Exception: " + error.getMessage(), trackingId));
+        }
+    }
+
+    public void handleTimeout(TrackedPoll tracked) {
+        trackingRegistry.finish(tracked, new InquiryApiResponse("TIMEOUT", "Polling limit reached", tracked.getTrackingId()));
+        log.warn("Polling limit reached for trackingId={}", tracked.getTrackingId());
+    }
+
+    /**
+     * Gives a pure callback chain until {@code callback.timeout-seconds} after its ACK (zero
+     * or less for no limit) to receive a terminal callback, then times it out, so a lost
+     * callback does not hold the admission permit and the subscribers forever. Ending the
+     * chain before then cancels the deadline.
+     */
+    public void awaitCallback(TrackedPoll tracked) {
+        if (callbackTimeoutSeconds <= 0) {
+            return;
+        }
+        Duration elapsed = tracked.getElapsed();
+        Duration remaining = Duration.ofSeconds(callbackTimeoutSeconds).minus(elapsed != null ? elapsed : Duration.ZERO);
+        tracked.setPending(pollScheduler.schedule(() -> {
+            if (tracked.isCancelled()) {
+                return;
+            }
+            trackingRegistry.finish(tracked, new InquiryApiResponse("TIMEOUT", "No callback received", tracked.getTrackingId()));
+            log.warn("Callback deadline reached for trackingId={}", tracked.getTrackingId());
+        }, remaining.isNegative() ? Duration.ZERO : remaining));
+    }
+
+    /**
+     * Delay before poll number {@code attemptIndex}, or {@code null} once polling should
+     * give up. Callback-with-fallback trackings poll at the slow fallback rate; everything
+     * else asks the configured {@link PollingIntervalPolicy}.
+     */
+    public Duration nextDelay(TrackedPoll tracked, int attemptIndex) {
+        Duration delay;
+        if (tracked.getMode() == TrackingMode.CALLBACK_WITH_FALLBACK) {
+            delay = attemptIndex < fallbackMaxAttempts
+                    ? PollingIntervalPolicy.honorRetryAfter(Duration.ofSeconds(fallbackIntervalSeconds), tracked.getRetryAfter())
+                    : null;
+        } else {
+            Duration elapsed = tracked.getElapsed();
+            delay = pollingIntervalPolicy.nextDelay(new PollContext(attemptIndex,
+                    elapsed != null ? elapsed : Duration.ZERO, tracked.getLastDelay(), tracked.getRetryAfter()));
+        }
+        tracked.setLastDelay(delay);
+        if (delay != null) {
+            trackingRegistry.recordNextAttempt(tracked, attemptIndex, delay);
+        }
+        return delay;
+    }
+
+    /**
+     * What repeating the last event would have cost on the wire to the chain's own sessions.
+     */
+    private static long downstreamBytes(TrackedPoll tracked) {
+        return (long) tracked.getLastFrameBytes() * tracked.getSubscriberCount();
+    }
+}
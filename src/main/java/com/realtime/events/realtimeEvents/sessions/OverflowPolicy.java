@@ -0,0 +1,23 @@
+package com.realtime.events.realtimeEvents.sessions;
+
+/**
+ * What a session does when its client stops reading and the outbox reaches its limit.
+ * Terminal statuses are never dropped under any policy.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Discard the oldest pending non-terminal event.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Close the connection; the client reconnects with Last-Event-ID and catches up from the replay buffer.
+     */
+    DISCONNECT,
+
+    /**
+     * Keep only the newest pending event per trackingId, dropping the oldest when still full.
+     */
+    CONFLATE
+}
@@ -0,0 +1,64 @@
+package com.realtime.events.realtimeEvents.sessions;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Fixed-size ring of the most recent events of one session, indexed by their event id.
+ * <p>
+ * Ids, timestamps and payloads live in parallel arrays so retaining history costs no
+ * per-event node objects. Event ids must be appended in contiguous increasing order,
+ * which lets a replay jump straight to the first missed slot. Not thread-safe; the owning
+ * {@link SseSession} guards access.
+ */
+final class ReplayBuffer<T> {
+
+    private final long[] ids;
+    private final long[] timestamps;
+    private final Object[] events;
+    private final long ttlMillis;
+    private int head;
+    private int size;
+
+    ReplayBuffer(int capacity, long ttlMillis) {
+        this.ids = new long[capacity];
+        this.timestamps = new long[capacity];
+        this.events = new Object[capacity];
+        this.ttlMillis = ttlMillis;
+    }
+
+    void add(long id, long now, T event) {
+        if (ids.length == 0) {
+            return;
+        }
+        ids[head] = id;
+        timestamps[head] = now;
+        events[head] = event;
+        head = (head + 1) % ids.length;
+        if (size < ids.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Hands every retained, unexpired event newer than {@code lastEventId} to the consumer,
+     * oldest first.
+     */
+    @SuppressWarnings("unchecked")
+    void replayAfter(long lastEventId, long now, BiConsumer<Long, T> consumer) {
+        if (size == 0) {
+            return;
+        }
+        int newest = (head - 1 + ids.length) % ids.length;
+        long missed = Math.min(ids[newest] - lastEventId, size);
+        for (long i = missed; i > 0; i--) {
+            int slot = (int) ((newest - i + 1 + ids.length) % ids.length);
+            if (now - timestamps[slot] <= ttlMillis) {
+                consumer.accept(ids[slot], (T) events[slot]);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,49 @@
+package com.realtime.events.realtimeEvents.sessions;
+
+import reactor.core.publisher.Sinks;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Emit outcomes summed over all sessions. Every emit is counted once, under its
+ * {@link Sinks.EmitResult}; the dropped and conflated counts are about the events lost to
+ * the overflow policy, which may be queued ones rather than the one being emitted.
+ */
+public class SessionEmitCounters {
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder conflated = new LongAdder();
+    private final Map<Sinks.EmitResult, LongAdder> results = new EnumMap<>(Sinks.EmitResult.class);
+
+    SessionEmitCounters() {
+        for (Sinks.EmitResult result : Sinks.EmitResult.values()) {
+            results.put(result, new LongAdder());
+        }
+    }
+
+    void dropped() {
+        dropped.increment();
+    }
+
+    void conflated() {
+        conflated.increment();
+    }
+
+    void emitted(Sinks.EmitResult result) {
+        results.get(result).increment();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getConflatedCount() {
+        return conflated.sum();
+    }
+
+    public long getEmitCount(Sinks.EmitResult result) {
+        return results.get(result).sum();
+    }
+}
@@ -0,0 +1,43 @@
+package com.realtime.events.realtimeEvents.sessions;
+
+import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An event payload serialized once, at fan-out time. Every session, outbox slot and replay
+ * slot the event reaches shares the same JSON bytes, so writing it to a subscriber is a
+ * copy into the response rather than another Jackson pass. The response object is kept
+ * alongside for conflation and terminal-status checks; neither is mutated after encoding.
+ */
+public final class SseFrame {
+
+    private final InquiryApiResponse response;
+    private final byte[] json;
+
+    SseFrame(InquiryApiResponse response, byte[] json) {
+        this.response = response;
+        this.json = json;
+    }
+
+    public InquiryApiResponse getResponse() {
+        return response;
+    }
+
+    public int getSize() {
+        return json.length;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(json);
+    }
+
+    /**
+     * Returns a read-only view of the encoded bytes, for writers that take buffers.
+     */
+    public ByteBuffer asReadOnlyBuffer() {
+        return ByteBuffer.wrap(json).asReadOnlyBuffer();
+    }
+}
@@ -0,0 +1,58 @@
+package com.realtime.events.realtimeEvents.sessions;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WebFlux counterpart of {@link SseFrameHttpMessageConverter}. WebFlux writes the
+ * {@code data:} of every {@code ServerSentEvent} with a single encoder, so this one takes
+ * the place of the JSON encoder there: an {@link SseFrame} is wrapped into a buffer without
+ * copying its bytes, anything else is passed on to {@code delegate}.
+ */
+@RequiredArgsConstructor
+public class SseFrameDataEncoder implements Encoder<Object> {
+
+    private final Encoder<Object> delegate;
+
+    @Override
+    public boolean canEncode(@NonNull ResolvableType elementType, MimeType mimeType) {
+        return isFrame(elementType) || delegate.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(@NonNull Publisher<?> inputStream, @NonNull DataBufferFactory bufferFactory,
+                                   @NonNull ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+        if (isFrame(elementType)) {
+            return Flux.from(inputStream).map(frame -> encodeValue(frame, bufferFactory, elementType, mimeType, hints));
+        }
+        return delegate.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+    }
+
+    @Override
+    public DataBuffer encodeValue(@NonNull Object value, @NonNull DataBufferFactory bufferFactory,
+                                  @NonNull ResolvableType valueType, MimeType mimeType, Map<String, Object> hints) {
+        if (value instanceof SseFrame frame) {
+            return bufferFactory.wrap(frame.asReadOnlyBuffer());
+        }
+        return delegate.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return delegate.getEncodableMimeTypes();
+    }
+
+    private static boolean isFrame(ResolvableType type) {
+        return SseFrame.class == type.toClass();
+    }
+}
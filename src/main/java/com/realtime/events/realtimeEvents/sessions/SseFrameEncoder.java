@@ -0,0 +1,26 @@
+package com.realtime.events.realtimeEvents.sessions;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serializes responses into {@link SseFrame}s with the application's ObjectMapper, so frames
+ * carry the same JSON the message converters would have written.
+ */
+@Component
+@RequiredArgsConstructor
+public class SseFrameEncoder {
+
+    private final ObjectMapper objectMapper;
+
+    public SseFrame encode(InquiryApiResponse response) {
+        try {
+            return new SseFrame(response, objectMapper.writeValueAsBytes(response));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode event for trackingId=" + response.getTrackingId(), e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.realtime.events.realtimeEvents.sessions;
+
+import lombok.NonNull;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Writes the pre-encoded data of an {@link SseFrame} as is. Spring MVC renders each
+ * {@code ServerSentEvent} field through the message converters, so with this converter
+ * in front of Jackson the {@code data:} line costs a byte copy per subscriber.
+ */
+public class SseFrameHttpMessageConverter extends AbstractHttpMessageConverter<SseFrame> {
+
+    public SseFrameHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(@NonNull Class<?> clazz) {
+        return SseFrame.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(@NonNull Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected SseFrame readInternal(@NonNull Class<? extends SseFrame> clazz, @NonNull HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("SseFrame is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(@NonNull SseFrame frame, @NonNull HttpOutputMessage outputMessage) throws IOException {
+        frame.writeTo(outputMessage.getBody());
+    }
+}
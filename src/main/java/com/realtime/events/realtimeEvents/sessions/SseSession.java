@@ -0,0 +1,249 @@
+package com.realtime.events.realtimeEvents.sessions;
+
+import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * One SSE session. Connections come and go, the session keeps numbering its events and
+ * retains the most recent ones so a client reconnecting with {@code Last-Event-ID} only
+ * receives what it missed.
+ * <p>
+ * Events are handed to the connection only as fast as the client reads them. Anything
+ * waiting goes into a bounded outbox governed by the {@link OverflowPolicy}, so a stalled
+ * browser costs at most {@code bufferLimit} events of heap. All state is guarded by the
+ * session monitor, which also serializes concurrent pollers publishing into the same session.
+ */
+public class SseSession {
+
+    private static final Set<String> TERMINAL_STATUSES = Set.of("COMPLETED", "FAILED", "REJECTED", "TIMEOUT", "ERROR");
+    private static final ServerSentEvent<SseFrame> HEARTBEAT = ServerSentEvent.<SseFrame>builder()
+            .comment("heartbeat")
+            .build();
+
+    private final String sessionId;
+    private final ReplayBuffer<SseFrame> replay;
+    private final ArrayDeque<ServerSentEvent<SseFrame>> outbox = new ArrayDeque<>();
+    private final int bufferLimit;
+    private final OverflowPolicy overflowPolicy;
+    private final SessionEmitCounters counters;
+    private FluxSink<ServerSentEvent<SseFrame>> connection;
+    private boolean draining;
+    private long lastEventId;
+    private long detachedAt;
+    private long lastWriteAt;
+
+    public SseSession(String sessionId, int replayCapacity, long replayTtlMillis,
+                      int bufferLimit, OverflowPolicy overflowPolicy, SessionEmitCounters counters) {
+        this.sessionId = sessionId;
+        this.replay = new ReplayBuffer<>(replayCapacity, replayTtlMillis);
+        this.bufferLimit = bufferLimit;
+        this.overflowPolicy = overflowPolicy;
+        this.counters = counters;
+        this.detachedAt = System.currentTimeMillis();
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Returns the stream for a new connection, replaying events after {@code resumeFrom} first.
+     * A negative {@code resumeFrom} starts with live events only. Subscribing replaces any
+     * previous connection of this session.
+     */
+    public Flux<ServerSentEvent<SseFrame>> attach(long resumeFrom) {
+        return Flux.create(sink -> bind(sink, resumeFrom));
+    }
+
+    /**
+     * Numbers and retains the frame, then hands it to the live connection if there is one.
+     * The frame is shared with every other session it was published to and never copied.
+     *
+     * @return {@code OK} when delivered or queued, {@code FAIL_ZERO_SUBSCRIBER} when no client
+     * is connected (the event is still kept for replay) and {@code FAIL_OVERFLOW} when the
+     * overflow policy rejected it
+     */
+    public synchronized Sinks.EmitResult emit(SseFrame frame) {
+        long id = ++lastEventId;
+        replay.add(id, System.currentTimeMillis(), frame);
+        Sinks.EmitResult result;
+        if (connection == null) {
+            result = Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER;
+        } else {
+            result = offer(toEvent(id, frame));
+        }
+        counters.emitted(result);
+        return result;
+    }
+
+    public synchronized boolean isConnected() {
+        return connection != null;
+    }
+
+    public synchronized boolean isDetachedLongerThan(long millis) {
+        return connection == null && System.currentTimeMillis() - detachedAt >= millis;
+    }
+
+    /**
+     * Restarts the idle clock of a detached session a client is about to attach to.
+     */
+    public synchronized void markConnecting() {
+        if (connection == null) {
+            detachedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Writes an SSE comment when nothing was written for {@code idleMillis}. Writing is what
+     * surfaces half-open connections: the container stops requesting and the outbox stalls.
+     */
+    public synchronized boolean heartbeatIfIdle(long idleMillis) {
+        if (connection == null || !outbox.isEmpty() || System.currentTimeMillis() - lastWriteAt < idleMillis) {
+            return false;
+        }
+        if (connection.requestedFromDownstream() > 0) {
+            write(connection, HEARTBEAT);
+        } else {
+            outbox.add(HEARTBEAT);
+        }
+        return true;
+    }
+
+    /**
+     * A connection is considered dead when events are waiting but the client has not taken
+     * any of them for {@code millis}.
+     */
+    public synchronized boolean isStalledLongerThan(long millis) {
+        return connection != null && !outbox.isEmpty() && System.currentTimeMillis() - lastWriteAt >= millis;
+    }
+
+    public synchronized int getPendingCount() {
+        return outbox.size();
+    }
+
+    public synchronized void close() {
+        if (connection != null) {
+            connection.complete();
+        }
+    }
+
+    private synchronized void bind(FluxSink<ServerSentEvent<SseFrame>> sink, long resumeFrom) {
+        if (connection != null) {
+            connection.complete();
+        }
+        connection = sink;
+        lastWriteAt = System.currentTimeMillis();
+        if (resumeFrom > lastEventId) {
+            // An id from before a restart: this session was recreated and renumbered, send all it kept
+            resumeFrom = 0;
+        }
+        if (resumeFrom >= 0) {
+            replay.replayAfter(resumeFrom, System.currentTimeMillis(), (id, frame) -> outbox.add(toEvent(id, frame)));
+        }
+        sink.onRequest(n -> drain(sink));
+        sink.onDispose(() -> detach(sink));
+        drain(sink);
+    }
+
+    private Sinks.EmitResult offer(ServerSentEvent<SseFrame> event) {
+        if (outbox.isEmpty() && connection.requestedFromDownstream() > 0) {
+            write(connection, event);
+            return Sinks.EmitResult.OK;
+        }
+        if (overflowPolicy == OverflowPolicy.CONFLATE && removePendingFor(event.data().getResponse())) {
+            counters.conflated();
+        }
+        if (outbox.size() >= bufferLimit) {
+            if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                counters.dropped();
+                connection.complete();
+                return Sinks.EmitResult.FAIL_OVERFLOW;
+            }
+            if (!removeOldestNonTerminal() && !isTerminal(event.data().getResponse())) {
+                counters.dropped();
+                return Sinks.EmitResult.FAIL_OVERFLOW;
+            }
+        }
+        outbox.add(event);
+        return Sinks.EmitResult.OK;
+    }
+
+    private boolean removePendingFor(InquiryApiResponse response) {
+        if (response.getTrackingId() == null) {
+            return false;
+        }
+        Iterator<ServerSentEvent<SseFrame>> pending = outbox.iterator();
+        while (pending.hasNext()) {
+            InquiryApiResponse queued = responseOf(pending.next());
+            if (queued != null && response.getTrackingId().equals(queued.getTrackingId()) && !isTerminal(queued)) {
+                pending.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean removeOldestNonTerminal() {
+        Iterator<ServerSentEvent<SseFrame>> pending = outbox.iterator();
+        while (pending.hasNext()) {
+            InquiryApiResponse queued = responseOf(pending.next());
+            if (!isTerminal(queued)) {
+                pending.remove();
+                if (queued != null) {
+                    counters.dropped();
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized void drain(FluxSink<ServerSentEvent<SseFrame>> sink) {
+        // next() may request more synchronously; the running loop picks that demand up
+        if (draining || connection != sink) {
+            return;
+        }
+        draining = true;
+        try {
+            while (connection == sink && !outbox.isEmpty() && sink.requestedFromDownstream() > 0) {
+                write(sink, outbox.poll());
+            }
+        } finally {
+            draining = false;
+        }
+    }
+
+    private void write(FluxSink<ServerSentEvent<SseFrame>> sink, ServerSentEvent<SseFrame> event) {
+        lastWriteAt = System.currentTimeMillis();
+        sink.next(event);
+    }
+
+    private synchronized void detach(FluxSink<ServerSentEvent<SseFrame>> sink) {
+        if (connection == sink) {
+            connection = null;
+            outbox.clear();
+            detachedAt = System.currentTimeMillis();
+        }
+    }
+
+    private static boolean isTerminal(InquiryApiResponse response) {
+        return response != null && TERMINAL_STATUSES.contains(response.getStatus());
+    }
+
+    private static InquiryApiResponse responseOf(ServerSentEvent<SseFrame> event) {
+        return event.data() != null ? event.data().getResponse() : null;
+    }
+
+    private static ServerSentEvent<SseFrame> toEvent(long id, SseFrame frame) {
+        return ServerSentEvent.builder(frame)
+                .id(Long.toString(id))
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.realtime.events.realtimeEvents.sessions;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class SseSessionFactory {
+
+    @Getter
+    private final SessionEmitCounters counters = new SessionEmitCounters();
+
+    private final int replayCapacity;
+    private final long replayTtlMillis;
+    private final int bufferLimit;
+    private final OverflowPolicy overflowPolicy;
+
+    public SseSessionFactory(@Value("${sse.replay.capacity:64}") int replayCapacity,
+                             @Value("${sse.replay.ttl-seconds:120}") long replayTtlSeconds,
+                             @Value("${sse.session.buffer-limit:32}") int bufferLimit,
+                             @Value("${sse.session.overflow-policy:CONFLATE}") OverflowPolicy overflowPolicy) {
+        this.replayCapacity = replayCapacity;
+        this.replayTtlMillis = Duration.ofSeconds(replayTtlSeconds).toMillis();
+        this.bufferLimit = bufferLimit;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public SseSession create(String sessionId) {
+        return new SseSession(sessionId, replayCapacity, replayTtlMillis, bufferLimit, overflowPolicy, counters);
+    }
+}
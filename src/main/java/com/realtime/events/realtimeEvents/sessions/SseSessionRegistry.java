@@ -0,0 +1,173 @@
+package com.realtime.events.realtimeEvents.sessions;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Owns every SSE session on this node and keeps the set healthy from one periodic sweep:
+ * idle connections get an SSE comment heartbeat, connections that stopped reading are
+ * closed, and sessions nobody reconnected to within the idle TTL are evicted together
+ * with their pollers. One timer covers all sessions, so the cost is a map walk rather
+ * than a scheduled task per connection.
+ */
+@Component
+@Slf4j
+public class SseSessionRegistry {
+
+    private final SseSessionFactory sessionFactory;
+
+    private final Map<String, SseSession> sessions = new ConcurrentHashMap<>();
+    private final Set<String> restored = ConcurrentHashMap.newKeySet();
+    private final List<Consumer<String>> creationListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<String>> removalListeners = new CopyOnWriteArrayList<>();
+
+    private final long heartbeatIntervalSeconds;
+    private final long deadAfterSeconds;
+    private final long idleTtlSeconds;
+
+    public SseSessionRegistry(SseSessionFactory sessionFactory,
+                              @Value("${sse.session.heartbeat-interval-seconds:15}") long heartbeatIntervalSeconds,
+                              @Value("${sse.session.dead-after-seconds:45}") long deadAfterSeconds,
+                              @Value("${sse.session.idle-ttl-seconds:120}") long idleTtlSeconds) {
+        this.sessionFactory = sessionFactory;
+        this.heartbeatIntervalSeconds = heartbeatIntervalSeconds;
+        this.deadAfterSeconds = deadAfterSeconds;
+        this.idleTtlSeconds = idleTtlSeconds;
+    }
+
+    /**
+     * Returns the session for a connecting client, creating it if needed. The lookup runs in
+     * the same {@code compute()} the sweep evicts with and restarts the session's idle clock,
+     * so a session handed out here is not evicted before the client attaches to it.
+     */
+    public SseSession connect(String sessionId) {
+        boolean[] created = new boolean[1];
+        SseSession session = sessions.compute(sessionId, (id, existing) -> {
+            if (existing != null) {
+                existing.markConnecting();
+                // The first client on a restored session is what makes it ours
+                created[0] = restored.remove(id);
+                return existing;
+            }
+            created[0] = true;
+            return sessionFactory.create(id);
+        });
+        if (created[0]) {
+            creationListeners.forEach(listener -> listener.accept(sessionId));
+        }
+        return session;
+    }
+
+    /**
+     * Recreates a session persisted before a restart, detached, so its events collect for
+     * replay. Unlike {@link #connect(String)} nothing is announced: after a restart the client
+     * may well be connected to another node, and only a client connecting here makes the
+     * session this node's.
+     */
+    public SseSession restore(String sessionId) {
+        return sessions.computeIfAbsent(sessionId, id -> {
+            restored.add(id);
+            return sessionFactory.create(id);
+        });
+    }
+
+    public SseSession get(String sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    public void remove(String sessionId) {
+        SseSession session = sessions.remove(sessionId);
+        restored.remove(sessionId);
+        if (session != null) {
+            session.close();
+        }
+        removalListeners.forEach(listener -> listener.accept(sessionId));
+    }
+
+    /**
+     * Registers a callback for sessions created on this node, e.g. to announce ownership to peers.
+     */
+    public void onCreation(Consumer<String> listener) {
+        creationListeners.add(listener);
+    }
+
+    /**
+     * Returns the ids of every session a client connected to on this node, leaving out
+     * restored sessions nobody has reconnected to yet.
+     */
+    public Set<String> getSessionIds() {
+        return sessions.keySet().stream()
+                .filter(sessionId -> !restored.contains(sessionId))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Registers a callback for sessions that were disconnected or evicted, used to release
+     * whatever the session held (e.g. its pollers).
+     */
+    public void onRemoval(Consumer<String> listener) {
+        removalListeners.add(listener);
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    @Scheduled(fixedDelayString = "${sse.session.sweep-interval-ms:5000}")
+    public void sweep() {
+        long heartbeatMillis = Duration.ofSeconds(heartbeatIntervalSeconds).toMillis();
+        long deadMillis = Duration.ofSeconds(deadAfterSeconds).toMillis();
+        long idleMillis = Duration.ofSeconds(idleTtlSeconds).toMillis();
+        int heartbeats = 0;
+        int closed = 0;
+        int evicted = 0;
+
+        for (SseSession session : sessions.values()) {
+            if (session.isDetachedLongerThan(idleMillis)) {
+                if (evictIfIdle(session, idleMillis)) {
+                    restored.remove(session.getSessionId());
+                    removalListeners.forEach(listener -> listener.accept(session.getSessionId()));
+                    evicted++;
+                }
+            } else if (session.isStalledLongerThan(deadMillis)) {
+                // The client can still reconnect with Last-Event-ID until the idle TTL runs out
+                session.close();
+                closed++;
+            } else if (session.heartbeatIfIdle(heartbeatMillis)) {
+                heartbeats++;
+            }
+        }
+
+        if (closed > 0 || evicted > 0) {
+            log.info("Session sweep: {} heartbeats, {} dead connections closed, {} idle sessions evicted",
+                    heartbeats, closed, evicted);
+        }
+    }
+
+    /**
+     * Re-checks the idle TTL inside the map's {@code compute()}, so it cannot interleave with
+     * a {@link #connect(String)} handing the same session to a client.
+     */
+    private boolean evictIfIdle(SseSession session, long idleMillis) {
+        boolean[] evicted = new boolean[1];
+        sessions.computeIfPresent(session.getSessionId(), (id, current) -> {
+            if (current == session && current.isDetachedLongerThan(idleMillis)) {
+                evicted[0] = true;
+                return null;
+            }
+            return current;
+        });
+        return evicted[0];
+    }
+}
@@ -0,0 +1,45 @@
+package com.realtime.events.realtimeEvents.status;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Original classification: materializes the whole body and searches it for the terminal
+ * state names. Kept as a fallback for upstreams without a stable status field. Without
+ * structure to go by, the whole body is fingerprinted and the detail is its beginning.
+ */
+public class ContainsStatusClassifier implements StatusClassifier {
+
+    @Override
+    public Mono<StatusClassification> classify(Flux<DataBuffer> body) {
+        return DataBufferUtils.join(body)
+                .map(buffer -> {
+                    try {
+                        return classify(buffer.toString(StandardCharsets.UTF_8));
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                });
+    }
+
+    @Override
+    public StatusClassification classify(byte[] body) {
+        return classify(new String(body, StandardCharsets.UTF_8));
+    }
+
+    private StatusClassification classify(String status) {
+        long fingerprint = Fingerprint.of(status);
+        if (status.contains(StatusClassification.COMPLETED)) {
+            return new StatusClassification(StatusClassification.COMPLETED, status, fingerprint);
+        } else if (status.contains(StatusClassification.FAILED)) {
+            return new StatusClassification(StatusClassification.FAILED, status, fingerprint);
+        } else if (status.contains(StatusClassification.REJECTED)) {
+            return new StatusClassification(StatusClassification.REJECTED, status, fingerprint);
+        }
+        return new StatusClassification(StatusClassification.IN_PROGRESS, status, fingerprint);
+    }
+}
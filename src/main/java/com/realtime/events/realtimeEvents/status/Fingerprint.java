@@ -0,0 +1,39 @@
+package com.realtime.events.realtimeEvents.status;
+
+/**
+ * 64-bit FNV-1a over the parts of a status document that matter to clients. Collisions
+ * only cost a suppressed event while the state stays the same, and at 64 bits they are
+ * not a practical concern for the few values one trackingId goes through.
+ */
+public final class Fingerprint {
+
+    public static final long EMPTY = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private Fingerprint() {
+    }
+
+    /**
+     * Folds a value into the hash. {@code null} and the empty string hash differently, and
+     * a separator keeps {@code ("ab", "c")} apart from {@code ("a", "bc")}.
+     */
+    public static long add(long hash, String value) {
+        if (value == null) {
+            return (hash ^ 0xff) * PRIME;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = (hash ^ (c & 0xff)) * PRIME;
+            hash = (hash ^ (c >>> 8)) * PRIME;
+        }
+        return (hash ^ 0xfe) * PRIME;
+    }
+
+    public static long of(String... values) {
+        long hash = EMPTY;
+        for (String value : values) {
+            hash = add(hash, value);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,216 @@
+package com.realtime.events.realtimeEvents.status;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Streams the response through Jackson's non-blocking parser and reads only the configured
+ * status field, e.g. {@code status} or {@code result.state}.
+ * <p>
+ * Buffers are fed to the parser as they arrive and released immediately, so the body is
+ * never materialized, and matching on the field itself means state names appearing in
+ * other fields no longer misfire. Once the field was found the rest of the body is only
+ * drained. Values are mapped to states through a case-insensitive lookup built once at
+ * startup; anything unmapped counts as in progress.
+ * <p>
+ * Optional tracked fields (e.g. {@code progress}) are read in the same pass. Together with
+ * the status value they make up the fingerprint and the in-progress detail, so a poll that
+ * only changed fields clients do not see produces no event.
+ */
+public class JsonFieldStatusClassifier implements StatusClassifier {
+
+    private static final String IN_PROGRESS_DETAIL = "Process in progress";
+
+    private final JsonFactory jsonFactory;
+    private final String[][] fieldPaths;
+    private final String[] trackedFields;
+    private final Map<String, String> states;
+
+    /**
+     * @param fieldPath dot separated path of the status field
+     * @param mappings  upstream value to state, e.g. {@code DONE -> COMPLETED}
+     */
+    public JsonFieldStatusClassifier(JsonFactory jsonFactory, String fieldPath, Map<String, String> mappings) {
+        this(jsonFactory, fieldPath, mappings, List.of());
+    }
+
+    /**
+     * @param trackedFields dot separated paths of further fields whose changes clients should see
+     */
+    public JsonFieldStatusClassifier(JsonFactory jsonFactory, String fieldPath, Map<String, String> mappings,
+                                     List<String> trackedFields) {
+        this.jsonFactory = jsonFactory;
+        this.trackedFields = trackedFields.toArray(String[]::new);
+        this.fieldPaths = new String[1 + this.trackedFields.length][];
+        this.fieldPaths[0] = fieldPath.split("\\.");
+        for (int i = 0; i < this.trackedFields.length; i++) {
+            this.fieldPaths[i + 1] = this.trackedFields[i].split("\\.");
+        }
+        TreeMap<String, String> lookup = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        lookup.putAll(mappings);
+        this.states = lookup;
+    }
+
+    @Override
+    public Mono<StatusClassification> classify(Flux<DataBuffer> body) {
+        return Mono.defer(() -> {
+            FieldScanner scanner = new FieldScanner();
+            return body.doOnNext(buffer -> {
+                        try {
+                            if (!scanner.isDone()) {
+                                try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                                    chunks.forEachRemaining(scanner::feed);
+                                }
+                            }
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .then(Mono.fromCallable(scanner::finish))
+                    .doFinally(signal -> scanner.close());
+        });
+    }
+
+    @Override
+    public StatusClassification classify(byte[] body) {
+        FieldScanner scanner = new FieldScanner();
+        try {
+            scanner.feed(ByteBuffer.wrap(body));
+            return scanner.finish();
+        } finally {
+            scanner.close();
+        }
+    }
+
+    private StatusClassification toClassification(String[] values) {
+        String value = values[0];
+        long fingerprint = Fingerprint.EMPTY;
+        for (String fieldValue : values) {
+            fingerprint = Fingerprint.add(fingerprint, fieldValue);
+        }
+        String state = value == null ? null : states.get(value);
+        if (state != null && !StatusClassification.IN_PROGRESS.equals(state)) {
+            return new StatusClassification(state, value, fingerprint);
+        }
+        StringBuilder detail = new StringBuilder(value == null ? IN_PROGRESS_DETAIL : value);
+        for (int i = 0; i < trackedFields.length; i++) {
+            if (values[i + 1] != null) {
+                detail.append(", ").append(trackedFields[i]).append('=').append(values[i + 1]);
+            }
+        }
+        return new StatusClassification(StatusClassification.IN_PROGRESS, detail.toString(), fingerprint);
+    }
+
+    /**
+     * Per-response parser state. Tracks, for each field path, how many leading segments the
+     * current object nesting matches, which is all that is needed to spot the fields without
+     * building a tree.
+     */
+    private final class FieldScanner {
+
+        private final JsonParser parser;
+        private final ByteBufferFeeder feeder;
+        private final int[] matched = new int[fieldPaths.length];
+        private final boolean[] candidate = new boolean[fieldPaths.length];
+        private final String[] values = new String[fieldPaths.length];
+        private int depth;
+        private int found;
+
+        FieldScanner() {
+            try {
+                this.parser = jsonFactory.createNonBlockingByteBufferParser();
+                this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        boolean isDone() {
+            return found == fieldPaths.length;
+        }
+
+        void feed(ByteBuffer chunk) {
+            if (isDone()) {
+                return;
+            }
+            try {
+                feeder.feedInput(chunk);
+                scan();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        StatusClassification finish() {
+            feeder.endOfInput();
+            return toClassification(values);
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // nothing buffered worth reporting
+            }
+        }
+
+        private void scan() throws IOException {
+            JsonToken token;
+            while (!isDone() && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                switch (token) {
+                    case FIELD_NAME -> {
+                        for (int p = 0; p < fieldPaths.length; p++) {
+                            candidate[p] = values[p] == null && depth == matched[p] + 1
+                                    && fieldPaths[p][matched[p]].equals(parser.currentName());
+                        }
+                    }
+                    case START_OBJECT -> {
+                        depth++;
+                        for (int p = 0; p < fieldPaths.length; p++) {
+                            if (candidate[p] && matched[p] < fieldPaths[p].length - 1) {
+                                matched[p]++;
+                            }
+                            candidate[p] = false;
+                        }
+                    }
+                    case START_ARRAY -> {
+                        depth++;
+                        Arrays.fill(candidate, false);
+                    }
+                    case END_OBJECT -> {
+                        for (int p = 0; p < fieldPaths.length; p++) {
+                            if (matched[p] > 0 && depth == matched[p] + 1) {
+                                matched[p]--;
+                            }
+                        }
+                        depth--;
+                    }
+                    case END_ARRAY -> depth--;
+                    default -> {
+                        for (int p = 0; p < fieldPaths.length; p++) {
+                            if (candidate[p] && token.isScalarValue() && matched[p] == fieldPaths[p].length - 1) {
+                                values[p] = parser.getText();
+                                found++;
+                            }
+                            candidate[p] = false;
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.realtime.events.realtimeEvents.status;
+
+import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
+
+import java.util.Set;
+
+/**
+ * Outcome of classifying one upstream status document.
+ *
+ * @param status      one of {@code COMPLETED}, {@code FAILED}, {@code REJECTED} or {@code IN_PROGRESS}
+ * @param detail      what to show the client while the process is still in progress, at most
+ *                    {@link #MAX_DETAIL_LENGTH} characters
+ * @param fingerprint hash of the fields clients care about; an in-progress status with the
+ *                    same fingerprint as the previous one is not sent again
+ */
+public record StatusClassification(String status, String detail, long fingerprint) {
+
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+    public static final String REJECTED = "REJECTED";
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+
+    public static final int MAX_DETAIL_LENGTH = 200;
+
+    private static final Set<String> TERMINAL = Set.of(COMPLETED, FAILED, REJECTED);
+
+    public StatusClassification {
+        detail = summarize(detail);
+    }
+
+    /**
+     * Fingerprints the status and detail, for sources that know no other relevant fields.
+     */
+    public StatusClassification(String status, String detail) {
+        this(status, detail, Fingerprint.of(status, detail));
+    }
+
+    public boolean isTerminal() {
+        return TERMINAL.contains(status);
+    }
+
+    /**
+     * @return whether this status tells clients nothing beyond {@code previous}
+     */
+    public boolean isSameAs(String previousStatus, long previousFingerprint) {
+        return status.equals(previousStatus) && fingerprint == previousFingerprint;
+    }
+
+    public InquiryApiResponse toResponse(String trackingId) {
+        return switch (status) {
+            case COMPLETED -> new InquiryApiResponse(COMPLETED, "Process completed", trackingId);
+            case FAILED -> new InquiryApiResponse(FAILED, "Process failed", trackingId);
+            case REJECTED -> new InquiryApiResponse(REJECTED, "Process rejected", trackingId);
+            default -> new InquiryApiResponse(IN_PROGRESS, detail, trackingId);
+        };
+    }
+
+    private static String summarize(String detail) {
+        if (detail == null || detail.length() <= MAX_DETAIL_LENGTH) {
+            return detail;
+        }
+        return detail.substring(0, MAX_DETAIL_LENGTH - 3) + "...";
+    }
+}
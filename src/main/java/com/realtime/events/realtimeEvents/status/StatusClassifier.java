@@ -0,0 +1,18 @@
+package com.realtime.events.realtimeEvents.status;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Maps an upstream status document to one of our tracking states.
+ */
+public interface StatusClassifier {
+
+    /**
+     * Classifies a streamed response body. Implementations release every buffer they receive.
+     */
+    Mono<StatusClassification> classify(Flux<DataBuffer> body);
+
+    StatusClassification classify(byte[] body);
+}
@@ -0,0 +1,151 @@
+package com.realtime.events.realtimeEvents.subscriptions;
+
+import com.realtime.events.realtimeEvents.cluster.SessionEventBus;
+import com.realtime.events.realtimeEvents.dto.SubscriptionRequest;
+import com.realtime.events.realtimeEvents.sessions.SseFrame;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lets one SSE stream watch many trackingIds and userIds. Inverted indexes from trackingId
+ * and userId to the watching sessions make a dispatch cost one lookup per key plus one
+ * publish per watcher, independent of how many sessions and subscriptions exist.
+ * <p>
+ * Watching does not start polling; the stream receives events for trackings somebody
+ * started through {@code /sse/start}. Each session may narrow what it receives with a
+ * status filter.
+ */
+@Component
+@RequiredArgsConstructor
+public class SubscriptionIndex {
+
+    private final SessionEventBus eventBus;
+
+    private final Map<String, Set<String>> byTrackingId = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byUserId = new ConcurrentHashMap<>();
+    private final Map<String, SessionSubscriptions> bySession = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void releaseSessionsOnRemoval() {
+        eventBus.onSessionGone(this::removeSession);
+    }
+
+    public void subscribe(String sessionId, SubscriptionRequest request) {
+        SessionSubscriptions subscriptions = bySession.computeIfAbsent(sessionId, id -> new SessionSubscriptions());
+        subscriptions.statuses.addAll(upperCase(request.getStatuses()));
+        for (String trackingId : nullToEmpty(request.getTrackingIds())) {
+            subscriptions.trackingIds.add(trackingId);
+            addTo(byTrackingId, trackingId, sessionId);
+        }
+        for (String userId : nullToEmpty(request.getUserIds())) {
+            subscriptions.userIds.add(userId);
+            addTo(byUserId, userId, sessionId);
+        }
+    }
+
+    public void unsubscribe(String sessionId, SubscriptionRequest request) {
+        SessionSubscriptions subscriptions = bySession.get(sessionId);
+        if (subscriptions == null) {
+            return;
+        }
+        subscriptions.statuses.removeAll(upperCase(request.getStatuses()));
+        for (String trackingId : nullToEmpty(request.getTrackingIds())) {
+            subscriptions.trackingIds.remove(trackingId);
+            removeFrom(byTrackingId, trackingId, sessionId);
+        }
+        for (String userId : nullToEmpty(request.getUserIds())) {
+            subscriptions.userIds.remove(userId);
+            removeFrom(byUserId, userId, sessionId);
+        }
+    }
+
+    public void removeSession(String sessionId) {
+        SessionSubscriptions subscriptions = bySession.remove(sessionId);
+        if (subscriptions == null) {
+            return;
+        }
+        subscriptions.trackingIds.forEach(trackingId -> removeFrom(byTrackingId, trackingId, sessionId));
+        subscriptions.userIds.forEach(userId -> removeFrom(byUserId, userId, sessionId));
+    }
+
+    /**
+     * Sends the event to every session watching its trackingId or userId, once per session,
+     * skipping the ones in {@code alreadyNotified} (the sessions that started the tracking).
+     */
+    public void dispatch(String trackingId, String userId, SseFrame frame, Set<String> alreadyNotified) {
+        Set<String> trackingWatchers = byTrackingId.getOrDefault(trackingId, Set.of());
+        for (String sessionId : trackingWatchers) {
+            deliver(sessionId, frame, alreadyNotified);
+        }
+        if (userId == null) {
+            return;
+        }
+        for (String sessionId : byUserId.getOrDefault(userId, Set.of())) {
+            if (!trackingWatchers.contains(sessionId)) {
+                deliver(sessionId, frame, alreadyNotified);
+            }
+        }
+    }
+
+    public SubscriptionRequest getSubscriptions(String sessionId) {
+        SessionSubscriptions subscriptions = bySession.get(sessionId);
+        if (subscriptions == null) {
+            return new SubscriptionRequest();
+        }
+        return new SubscriptionRequest(Set.copyOf(subscriptions.trackingIds), Set.copyOf(subscriptions.userIds),
+                Set.copyOf(subscriptions.statuses));
+    }
+
+    private void deliver(String sessionId, SseFrame frame, Set<String> alreadyNotified) {
+        if (alreadyNotified.contains(sessionId)) {
+            return;
+        }
+        SessionSubscriptions subscriptions = bySession.get(sessionId);
+        if (subscriptions != null && subscriptions.accepts(frame.getResponse().getStatus())) {
+            eventBus.publish(sessionId, frame);
+        }
+    }
+
+    // add and remove both run inside compute so a remove emptying the set cannot race an add into a detached set
+    private static void addTo(Map<String, Set<String>> index, String key, String sessionId) {
+        index.compute(key, (k, sessionIds) -> {
+            Set<String> watchers = sessionIds != null ? sessionIds : ConcurrentHashMap.newKeySet();
+            watchers.add(sessionId);
+            return watchers;
+        });
+    }
+
+    private static void removeFrom(Map<String, Set<String>> index, String key, String sessionId) {
+        index.computeIfPresent(key, (k, sessionIds) -> {
+            sessionIds.remove(sessionId);
+            return sessionIds.isEmpty() ? null : sessionIds;
+        });
+    }
+
+    private static Collection<String> nullToEmpty(Collection<String> values) {
+        return values == null ? Set.of() : values;
+    }
+
+    private static Set<String> upperCase(Collection<String> statuses) {
+        Set<String> result = ConcurrentHashMap.newKeySet();
+        nullToEmpty(statuses).forEach(status -> result.add(status.toUpperCase()));
+        return result;
+    }
+
+    private static final class SessionSubscriptions {
+
+        private final Set<String> trackingIds = ConcurrentHashMap.newKeySet();
+        private final Set<String> userIds = ConcurrentHashMap.newKeySet();
+        private final Set<String> statuses = ConcurrentHashMap.newKeySet();
+
+        boolean accepts(String status) {
+            return statuses.isEmpty() || statuses.contains(status);
+        }
+    }
+}
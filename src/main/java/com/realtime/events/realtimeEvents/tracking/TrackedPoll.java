@@ -0,0 +1,267 @@
+package com.realtime.events.realtimeEvents.tracking;
+
+import com.realtime.events.realtimeEvents.sessions.SseFrame;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The single polling chain for one trackingId, shared by every session watching it.
+ */
+public class TrackedPoll {
+
+    private final String trackingId;
+    final Set<String> sessionIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean cancelled;
+    private volatile boolean finished;
+    private volatile Disposable pending;
+    private volatile TrackingMode mode = TrackingMode.POLLING;
+    private volatile String userId;
+    private volatile long acknowledgedAtNanos;
+    private volatile long pausedSinceNanos;
+    private volatile Duration lastDelay;
+    private volatile Duration retryAfter;
+    private volatile int attemptIndex;
+    private volatile Instant nextDueAt;
+    private volatile String lastStatus;
+    private volatile long lastFingerprint;
+    private volatile SseFrame lastFrame;
+    private volatile String etag;
+    private volatile long lastBodyBytes;
+
+    TrackedPoll(String trackingId) {
+        this.trackingId = trackingId;
+    }
+
+    public String getTrackingId() {
+        return trackingId;
+    }
+
+    public Set<String> getSessionIds() {
+        return Set.copyOf(sessionIds);
+    }
+
+    public int getSubscriberCount() {
+        return sessionIds.size();
+    }
+
+    public TrackingMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Set by the elected starter before the start API is called.
+     */
+    public void setMode(TrackingMode mode) {
+        this.mode = mode;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * Set by the elected starter; lets subscribers watching the userId receive the events.
+     */
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Elects the caller as the one that calls the start API and drives polling.
+     */
+    public boolean tryStart() {
+        return started.compareAndSet(false, true);
+    }
+
+    /**
+     * Marks the moment the start API acknowledged the process; elapsed time is measured from here.
+     */
+    public void markAcknowledged() {
+        acknowledgedAtNanos = System.nanoTime();
+    }
+
+    /**
+     * Carries the ACK time over from a previous process, so a resumed chain keeps its elapsed time.
+     */
+    public void restoreAcknowledgedAt(Instant acknowledgedAt) {
+        long sinceAck = Math.max(0, Duration.between(acknowledgedAt, Instant.now()).toNanos());
+        acknowledgedAtNanos = System.nanoTime() - sinceAck;
+    }
+
+    /**
+     * @return wall-clock time of the ACK, or {@code null} if the process was never acknowledged
+     */
+    public Instant getAcknowledgedAt() {
+        Duration elapsed = getElapsed();
+        return elapsed == null ? null : Instant.now().minus(elapsed);
+    }
+
+    /**
+     * @return time since the ACK, or {@code null} if the process was never acknowledged
+     */
+    public Duration getElapsed() {
+        long acknowledgedAt = acknowledgedAtNanos;
+        return acknowledgedAt == 0 ? null : Duration.ofNanos(System.nanoTime() - acknowledgedAt);
+    }
+
+    /**
+     * Starts the pause clock unless it already runs.
+     *
+     * @return how long polling has been paused without reaching upstream
+     */
+    public Duration markPaused() {
+        long now = System.nanoTime();
+        if (pausedSinceNanos == 0) {
+            pausedSinceNanos = now;
+        }
+        return Duration.ofNanos(now - pausedSinceNanos);
+    }
+
+    public void clearPaused() {
+        pausedSinceNanos = 0;
+    }
+
+    public Duration getLastDelay() {
+        return lastDelay;
+    }
+
+    public void setLastDelay(Duration lastDelay) {
+        this.lastDelay = lastDelay;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Latest {@code Retry-After} from upstream; {@code null} clears it.
+     */
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    public int getAttemptIndex() {
+        return attemptIndex;
+    }
+
+    /**
+     * @return when the next poll is due, or {@code null} before the first one was scheduled
+     */
+    public Instant getNextDueAt() {
+        return nextDueAt;
+    }
+
+    void setNextAttempt(int attemptIndex, Duration delay) {
+        this.attemptIndex = attemptIndex;
+        this.nextDueAt = Instant.now().plus(delay);
+    }
+
+    public String getLastStatus() {
+        return lastStatus;
+    }
+
+    void setLastStatus(String lastStatus) {
+        this.lastStatus = lastStatus;
+    }
+
+    /**
+     * Carries the last status sent over from a previous process, so the first poll of a
+     * resumed chain is not sent again to every session when nothing changed.
+     */
+    public void restoreLastStatus(String lastStatus, long lastFingerprint) {
+        this.lastStatus = lastStatus;
+        this.lastFingerprint = lastFingerprint;
+    }
+
+    public long getLastFingerprint() {
+        return lastFingerprint;
+    }
+
+    /**
+     * Fingerprint of the last status sent to subscribers, compared against the next poll.
+     */
+    public void setLastFingerprint(long lastFingerprint) {
+        this.lastFingerprint = lastFingerprint;
+    }
+
+    /**
+     * @return the last event sent to subscribers, or {@code null} before the first
+     */
+    public SseFrame getLastFrame() {
+        return lastFrame;
+    }
+
+    /**
+     * @return encoded size of the last event sent to subscribers
+     */
+    public int getLastFrameBytes() {
+        SseFrame frame = lastFrame;
+        return frame != null ? frame.getSize() : 0;
+    }
+
+    void setLastFrame(SseFrame lastFrame) {
+        this.lastFrame = lastFrame;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getLastBodyBytes() {
+        return lastBodyBytes;
+    }
+
+    /**
+     * Remembers the validator and size of the last status body, for the next conditional poll.
+     */
+    public void setLastBody(String etag, long bodyBytes) {
+        this.etag = etag;
+        this.lastBodyBytes = bodyBytes;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return {@code true} once the terminal event is being sent; the chain ends right after
+     */
+    boolean isFinished() {
+        return finished;
+    }
+
+    void markFinished() {
+        finished = true;
+    }
+
+    /**
+     * Remembers the next scheduled poll so it can be dropped when the last subscriber leaves.
+     */
+    public void setPending(Disposable next) {
+        pending = next;
+        if (cancelled) {
+            next.dispose();
+        }
+    }
+
+    /**
+     * @return {@code false} if the chain had already ended
+     */
+    synchronized boolean cancel() {
+        if (cancelled) {
+            return false;
+        }
+        cancelled = true;
+        Disposable next = pending;
+        if (next != null) {
+            next.dispose();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,22 @@
+package com.realtime.events.realtimeEvents.tracking;
+
+/**
+ * How status updates for a trackingId reach us.
+ */
+public enum TrackingMode {
+
+    /**
+     * Poll the status API on the configured intervals.
+     */
+    POLLING,
+
+    /**
+     * Rely entirely on upstream pushing to {@code POST /callback/{trackingId}}.
+     */
+    CALLBACK,
+
+    /**
+     * Take pushed updates and poll slowly in the background in case a callback is lost.
+     */
+    CALLBACK_WITH_FALLBACK
+}
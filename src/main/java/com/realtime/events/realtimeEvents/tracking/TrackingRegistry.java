@@ -0,0 +1,184 @@
+package com.realtime.events.realtimeEvents.tracking;
+
+import com.realtime.events.realtimeEvents.cluster.SessionEventBus;
+import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
+import com.realtime.events.realtimeEvents.sessions.SseFrame;
+import com.realtime.events.realtimeEvents.sessions.SseFrameEncoder;
+import com.realtime.events.realtimeEvents.subscriptions.SubscriptionIndex;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Keeps one poller per trackingId and fans its results out to every subscribed session,
+ * wherever in the cluster that session is connected.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrackingRegistry {
+
+    private final SessionEventBus eventBus;
+    private final SubscriptionIndex subscriptionIndex;
+    private final SseFrameEncoder frameEncoder;
+
+    private final Map<String, TrackedPoll> trackings = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> sessionTrackings = new ConcurrentHashMap<>();
+    private final List<Consumer<TrackedPoll>> changeListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<TrackedPoll>> endListeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    void releaseSessionsOnRemoval() {
+        eventBus.onSessionGone(this::removeSession);
+    }
+
+    /**
+     * Adds the session as a subscriber of the trackingId. Callers start polling only when
+     * {@link TrackedPoll#tryStart()} elects them, otherwise they joined a running poller.
+     * A poller that is sending its terminal event is not joined: the session would only
+     * get that event if it subscribed in time, so it gets a fresh poller instead.
+     */
+    public TrackedPoll subscribe(String trackingId, String sessionId) {
+        TrackedPoll tracked = trackings.compute(trackingId, (id, existing) -> {
+            TrackedPoll poll = existing != null && !existing.isCancelled() && !existing.isFinished()
+                    ? existing
+                    : new TrackedPoll(id);
+            poll.sessionIds.add(sessionId);
+            return poll;
+        });
+        sessionTrackings.computeIfAbsent(sessionId, id -> ConcurrentHashMap.newKeySet()).add(trackingId);
+        changed(tracked);
+        return tracked;
+    }
+
+    public void unsubscribe(String trackingId, String sessionId) {
+        TrackedPoll[] updated = new TrackedPoll[1];
+        trackings.computeIfPresent(trackingId, (id, poll) -> {
+            updated[0] = poll;
+            poll.sessionIds.remove(sessionId);
+            if (poll.sessionIds.isEmpty()) {
+                log.info("Last subscriber left, stopping poller for trackingId={}", id);
+                poll.cancel();
+                return null;
+            }
+            return poll;
+        });
+        if (updated[0] != null) {
+            (updated[0].isCancelled() ? endListeners : changeListeners).forEach(listener -> listener.accept(updated[0]));
+        }
+        sessionTrackings.computeIfPresent(sessionId, (id, ids) -> {
+            ids.remove(trackingId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    public void removeSession(String sessionId) {
+        Set<String> trackingIds = sessionTrackings.remove(sessionId);
+        if (trackingIds == null) {
+            return;
+        }
+        for (String trackingId : trackingIds) {
+            unsubscribe(trackingId, sessionId);
+        }
+    }
+
+    /**
+     * Sends the response to every session subscribed to the poller and to the streams
+     * watching its trackingId or userId. The response is encoded once and every recipient
+     * shares the frame. Results of a cancelled poller are dropped.
+     */
+    public void publish(TrackedPoll tracked, InquiryApiResponse response) {
+        if (tracked.isCancelled()) {
+            return;
+        }
+        SseFrame frame = frameEncoder.encode(response);
+        tracked.setLastStatus(response.getStatus());
+        tracked.setLastFrame(frame);
+        changed(tracked);
+        for (String sessionId : tracked.sessionIds) {
+            eventBus.publish(sessionId, frame);
+        }
+        subscriptionIndex.dispatch(tracked.getTrackingId(), tracked.getUserId(), frame, tracked.sessionIds);
+    }
+
+    /**
+     * Publishes the terminal response and ends the poller. The poller stops taking new
+     * subscribers before the response goes out, so every session either receives it or
+     * starts a fresh poller.
+     */
+    public void finish(TrackedPoll tracked, InquiryApiResponse response) {
+        tracked.markFinished();
+        publish(tracked, response);
+        complete(tracked);
+    }
+
+    /**
+     * Ends the poller once a terminal state was published; a later start for the same
+     * trackingId begins a fresh poller.
+     */
+    public void complete(TrackedPoll tracked) {
+        String trackingId = tracked.getTrackingId();
+        trackings.remove(trackingId, tracked);
+        if (!tracked.cancel()) {
+            return;
+        }
+        TrackedPoll successor = trackings.get(trackingId);
+        for (String sessionId : tracked.sessionIds) {
+            if (successor != null && successor.sessionIds.contains(sessionId)) {
+                continue;
+            }
+            sessionTrackings.computeIfPresent(sessionId, (id, ids) -> {
+                ids.remove(trackingId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+        endListeners.forEach(listener -> listener.accept(tracked));
+    }
+
+    /**
+     * Records which attempt the chain polls next and when, so it can resume after a restart.
+     */
+    public void recordNextAttempt(TrackedPoll tracked, int attemptIndex, Duration delay) {
+        tracked.setNextAttempt(attemptIndex, delay);
+        changed(tracked);
+    }
+
+    /**
+     * Registers a callback for pollers whose sessions, next attempt or last status changed.
+     * Runs on the publishing thread, so it must not block.
+     */
+    public void onChange(Consumer<TrackedPoll> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Registers a callback for pollers that completed or lost their last subscriber.
+     */
+    public void onEnd(Consumer<TrackedPoll> listener) {
+        endListeners.add(listener);
+    }
+
+    /**
+     * Returns the live poller for the trackingId, or {@code null} when nobody is tracking it.
+     */
+    public TrackedPoll find(String trackingId) {
+        return trackings.get(trackingId);
+    }
+
+    public int getActiveCount() {
+        return trackings.size();
+    }
+
+    private void changed(TrackedPoll tracked) {
+        changeListeners.forEach(listener -> listener.accept(tracked));
+    }
+}
@@ -0,0 +1,139 @@
+package com.realtime.events.realtimeEvents.upstream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.realtime.events.realtimeEvents.status.StatusClassifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coalesces the trackingIds that become due within a short window into a single call to
+ * the batch status API and demultiplexes the response back to each caller.
+ * <p>
+ * The batch API receives {@code {"trackingIds": [...]}} and answers with a JSON object
+ * keyed by trackingId whose values are the same status documents the per-id API returns.
+ * Each batch request goes through the {@link UpstreamGuard} once, so the breaker and the
+ * retry budget see one outcome per request and every poll in it shares that outcome.
+ */
+@Slf4j
+public class BatchingStatusClient implements UpstreamStatusClient, AutoCloseable {
+
+    private final WebClient webClient;
+    private final String batchStatusUri;
+    private final StatusClassifier statusClassifier;
+    private final UpstreamGuard guard;
+    private final Sinks.Many<PendingStatus> pending = Sinks.many().unicast().onBackpressureBuffer();
+    private final Disposable flusher;
+
+    public BatchingStatusClient(WebClient webClient, String batchStatusUri, StatusClassifier statusClassifier,
+                                Duration window, int batchSize, UpstreamGuard guard) {
+        this.webClient = webClient;
+        this.batchStatusUri = batchStatusUri;
+        this.statusClassifier = statusClassifier;
+        this.guard = guard;
+        this.flusher = pending.asFlux()
+                // Fair variant, as on peer links: a lone poll is flushed when the window ends, not on the next one
+                .bufferTimeout(batchSize, window, true)
+                .flatMap(this::sendBatch)
+                .subscribe();
+    }
+
+    @Override
+    public Mono<StatusPollResult> fetchStatus(String trackingId, int attemptIndex, String etag) {
+        // Validators are per resource, so a batch cannot be conditional; fingerprints still suppress repeats
+        return Mono.defer(() -> {
+            Sinks.One<StatusPollResult> result = Sinks.one();
+            // Polls become due on several threads at once; spin briefly instead of failing on contention
+            pending.emitNext(new PendingStatus(trackingId, result), Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+            return result.asMono();
+        });
+    }
+
+    private Mono<Void> sendBatch(List<PendingStatus> batch) {
+        Map<String, List<Sinks.One<StatusPollResult>>> waiters = new LinkedHashMap<>();
+        for (PendingStatus status : batch) {
+            waiters.computeIfAbsent(status.trackingId(), id -> new ArrayList<>(1)).add(status.result());
+        }
+        log.debug("Sending batch status request for {} trackingIds", waiters.size());
+
+        return guard.call("a batch of " + waiters.size() + " trackingIds", () -> request(waiters.keySet()),
+                        result -> sameForAll(waiters.keySet(), result))
+                .doOnNext(results -> demultiplex(results, waiters))
+                .doOnError(error -> waiters.values().forEach(results -> results.forEach(result -> result.tryEmitError(error))))
+                .onErrorResume(error -> Mono.empty())
+                .then();
+    }
+
+    /**
+     * @return the status of every trackingId the response covered
+     */
+    private Mono<Map<String, StatusPollResult>> request(Collection<String> trackingIds) {
+        return webClient.post()
+                .uri(batchStatusUri)
+                .bodyValue(Map.of("trackingIds", trackingIds))
+                .exchangeToMono(response -> {
+                    // A batch-level Retry-After applies to every trackingId in the batch
+                    Duration retryAfter = RetryAfter.from(response.headers().asHttpHeaders());
+                    if (retryAfter != null && RetryAfter.isThrottling(response.statusCode())) {
+                        return response.releaseBody().thenReturn(sameForAll(trackingIds, StatusPollResult.throttled(retryAfter)));
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.createError();
+                    }
+                    return response.bodyToMono(JsonNode.class)
+                            .switchIfEmpty(Mono.error(new IllegalStateException("Empty batch status response")))
+                            .map(body -> parse(body, trackingIds, retryAfter));
+                });
+    }
+
+    private Map<String, StatusPollResult> parse(JsonNode body, Collection<String> trackingIds, Duration retryAfter) {
+        Map<String, StatusPollResult> results = new HashMap<>();
+        for (String trackingId : trackingIds) {
+            JsonNode status = body.get(trackingId);
+            if (status != null && !status.isNull()) {
+                byte[] document = status.toString().getBytes(StandardCharsets.UTF_8);
+                results.put(trackingId, new StatusPollResult(statusClassifier.classify(document), retryAfter,
+                        null, document.length));
+            }
+        }
+        return results;
+    }
+
+    private void demultiplex(Map<String, StatusPollResult> polled, Map<String, List<Sinks.One<StatusPollResult>>> waiters) {
+        waiters.forEach((trackingId, results) -> {
+            StatusPollResult status = polled.get(trackingId);
+            if (status == null) {
+                results.forEach(result -> result.tryEmitError(
+                        new IllegalStateException("No status returned for trackingId: " + trackingId)));
+                return;
+            }
+            results.forEach(result -> result.tryEmitValue(status));
+        });
+    }
+
+    private static Map<String, StatusPollResult> sameForAll(Collection<String> trackingIds, StatusPollResult result) {
+        Map<String, StatusPollResult> results = new HashMap<>();
+        trackingIds.forEach(trackingId -> results.put(trackingId, result));
+        return results;
+    }
+
+    @Override
+    public void close() {
+        pending.tryEmitComplete();
+        flusher.dispose();
+    }
+
+    private record PendingStatus(String trackingId, Sinks.One<StatusPollResult> result) {
+    }
+}
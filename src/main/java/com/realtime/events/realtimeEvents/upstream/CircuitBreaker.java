@@ -0,0 +1,193 @@
+package com.realtime.events.realtimeEvents.upstream;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker shared by every poll to the upstream status API.
+ * <p>
+ * While closed, the outcome of the last {@code windowSize} calls is kept; once at least
+ * {@code minimumCalls} were seen and the failure rate reaches the threshold, the breaker
+ * opens and every call is refused for {@code openDuration}. Then a single probe is let
+ * through, and refused calls are told to wait until it can have timed out: its success closes the breaker, its failure opens it again. Calls report their
+ * outcome with the {@link Permission} they were granted, so a call that started while
+ * closed and finishes during the probe cannot decide the probe's outcome. Permission checks
+ * read a volatile state and only the outcome bookkeeping synchronizes, once per upstream
+ * call rather than per event.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * What {@link #tryAcquirePermission()} granted: nothing, a regular call while closed, or
+     * the single probe while half-open.
+     */
+    public enum Permission {
+        REFUSED, CALL, PROBE;
+
+        public boolean isGranted() {
+            return this != REFUSED;
+        }
+    }
+
+    private static final Duration PROBE_WAIT = Duration.ofSeconds(1);
+
+    private final int minimumCalls;
+    private final int failureRatePercent;
+    private final Duration openDuration;
+    private final Duration probeTimeout;
+    private final LongSupplier nanoClock;
+
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCount;
+    private int windowFailures;
+
+    private volatile State state = State.CLOSED;
+    private volatile long openUntilNanos;
+    private volatile long probeStartedNanos;
+    private final AtomicBoolean probing = new AtomicBoolean();
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+
+    public CircuitBreaker(int windowSize, int minimumCalls, int failureRatePercent, Duration openDuration,
+                          Duration probeTimeout, LongSupplier nanoClock) {
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRatePercent = failureRatePercent;
+        this.openDuration = openDuration;
+        this.probeTimeout = probeTimeout;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return whether and how the call may go to upstream; every granted call must report
+     * {@link #onSuccess}, {@link #onFailure} or {@link #onCancel} with the returned permission
+     */
+    public Permission tryAcquirePermission() {
+        State current = state;
+        if (current == State.CLOSED) {
+            return Permission.CALL;
+        }
+        if (current == State.OPEN) {
+            if (openUntilNanos - nanoClock.getAsLong() > 0) {
+                rejected.increment();
+                return Permission.REFUSED;
+            }
+            halfOpen();
+        }
+        if (probing.compareAndSet(false, true)) {
+            probeStartedNanos = nanoClock.getAsLong();
+            return Permission.PROBE;
+        }
+        rejected.increment();
+        return Permission.REFUSED;
+    }
+
+    public synchronized void onSuccess(Permission permission) {
+        if (permission == Permission.PROBE) {
+            if (state == State.HALF_OPEN) {
+                resetWindow();
+                state = State.CLOSED;
+                probing.set(false);
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure(Permission permission) {
+        if (permission == Permission.PROBE) {
+            if (state == State.HALF_OPEN) {
+                open();
+            }
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (windowCount >= minimumCalls && windowFailures * 100 >= failureRatePercent * windowCount) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * A granted call was abandoned without an outcome; an abandoned probe lets the next one through.
+     */
+    public void onCancel(Permission permission) {
+        if (permission == Permission.PROBE && state == State.HALF_OPEN) {
+            probing.set(false);
+        }
+    }
+
+    /**
+     * How long a refused call should wait before trying again.
+     */
+    public Duration getRetryDelay() {
+        State current = state;
+        if (current == State.OPEN) {
+            long remaining = openUntilNanos - nanoClock.getAsLong();
+            if (remaining > 0) {
+                return Duration.ofNanos(remaining);
+            }
+        } else if (current == State.HALF_OPEN && probing.get()) {
+            // Nothing changes before the probe answers, at the latest when it times out
+            long remaining = probeStartedNanos + probeTimeout.toNanos() - nanoClock.getAsLong();
+            if (remaining > 0) {
+                return Duration.ofNanos(remaining);
+            }
+        }
+        return openDuration.compareTo(PROBE_WAIT) < 0 ? openDuration : PROBE_WAIT;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getOpenedCount() {
+        return opened.sum();
+    }
+
+    private synchronized void halfOpen() {
+        if (state == State.OPEN) {
+            state = State.HALF_OPEN;
+            probing.set(false);
+        }
+    }
+
+    private void open() {
+        openUntilNanos = nanoClock.getAsLong() + openDuration.toNanos();
+        state = State.OPEN;
+        opened.increment();
+        resetWindow();
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowNext] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowNext = (windowNext + 1) % window.length;
+    }
+
+    private void resetWindow() {
+        windowNext = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+}
@@ -0,0 +1,54 @@
+package com.realtime.events.realtimeEvents.upstream;
+
+import com.realtime.events.realtimeEvents.status.StatusClassifier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Sends one status request per due poll. When the previous response carried an
+ * {@code ETag} the request is conditional, and a {@code 304} skips the body entirely.
+ */
+@RequiredArgsConstructor
+public class PerIdStatusClient implements UpstreamStatusClient {
+
+    private final WebClient webClient;
+    private final String statusApiUri;
+    private final StatusClassifier statusClassifier;
+
+    @Override
+    public Mono<StatusPollResult> fetchStatus(String trackingId, int attemptIndex, String etag) {
+        return webClient.get()
+                // {attempt} lets the json mock api return a different todo per poll; real upstreams use {trackingId}
+                .uri(statusApiUri, Map.of("trackingId", trackingId, "attempt", attemptIndex + 1))
+                .headers(headers -> {
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    HttpHeaders headers = response.headers().asHttpHeaders();
+                    Duration retryAfter = RetryAfter.from(headers);
+                    if (retryAfter != null && RetryAfter.isThrottling(response.statusCode())) {
+                        return response.releaseBody().thenReturn(StatusPollResult.throttled(retryAfter));
+                    }
+                    if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                        return response.releaseBody().thenReturn(StatusPollResult.notModified(etag, retryAfter));
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.createError();
+                    }
+                    long[] bodyBytes = new long[1];
+                    return statusClassifier.classify(response.bodyToFlux(DataBuffer.class)
+                                    .doOnNext(buffer -> bodyBytes[0] += buffer.readableByteCount()))
+                            .map(classification -> new StatusPollResult(classification, retryAfter,
+                                    headers.getETag(), bodyBytes[0]));
+                });
+    }
+}
@@ -0,0 +1,34 @@
+package com.realtime.events.realtimeEvents.upstream;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * Guards a status client that makes one upstream call per poll with an {@link UpstreamGuard}.
+ * The {@link BatchingStatusClient} guards its batch requests itself instead, so that one
+ * failed request counts once rather than once per poll it carried.
+ */
+@RequiredArgsConstructor
+public class ResilientStatusClient implements UpstreamStatusClient, AutoCloseable {
+
+    private final UpstreamStatusClient delegate;
+    private final UpstreamGuard guard;
+
+    @Override
+    public Mono<StatusPollResult> fetchStatus(String trackingId, int attemptIndex, String etag) {
+        return guard.call("trackingId=" + trackingId, () -> delegate.fetchStatus(trackingId, attemptIndex, etag),
+                Function.identity());
+    }
+
+    /**
+     * Closes the wrapped client. Spring only sees this wrapper, so it is the bean's destroy method.
+     */
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.realtime.events.realtimeEvents.upstream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses the {@code Retry-After} header, which is either delta-seconds or an HTTP date.
+ */
+final class RetryAfter {
+
+    private RetryAfter() {
+    }
+
+    static Duration from(HttpHeaders headers) {
+        return parse(headers.getFirst(HttpHeaders.RETRY_AFTER), Clock.systemUTC());
+    }
+
+    /**
+     * 429 and 503 carrying a {@code Retry-After} mean "not now", not "failed".
+     */
+    static boolean isThrottling(HttpStatusCode status) {
+        return status.value() == HttpStatus.TOO_MANY_REQUESTS.value()
+                || status.value() == HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+
+    static Duration parse(String value, Clock clock) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            long seconds = Long.parseLong(trimmed);
+            return seconds > 0 ? Duration.ofSeconds(seconds) : null;
+        } catch (NumberFormatException ignored) {
+            // not delta-seconds, try the date form
+        }
+        try {
+            Duration untilDate = Duration.between(clock.instant(),
+                    ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+            return untilDate.isNegative() || untilDate.isZero() ? null : untilDate;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.realtime.events.realtimeEvents.upstream;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Node-wide allowance for retrying failed upstream calls. Every call deposits
+ * {@code ratio} of a token and every retry withdraws a whole one, so retries can add at
+ * most that fraction on top of the regular polling load however many calls fail. The
+ * balance is capped so a long quiet period cannot save up a retry storm. Tokens are kept
+ * in thousandths in one {@link AtomicLong}.
+ */
+public class RetryBudget {
+
+    private static final long TOKEN = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    public RetryBudget(double ratio, int maxTokens) {
+        this.deposit = Math.round(ratio * TOKEN);
+        this.capacity = maxTokens * TOKEN;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    public void onCall() {
+        balance.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+    }
+
+    /**
+     * @return whether a retry may be made; {@code false} means the failure should stand
+     */
+    public boolean tryRetry() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                exhausted.increment();
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        retries.increment();
+        return true;
+    }
+
+    public double getTokens() {
+        return (double) balance.get() / TOKEN;
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    public long getExhaustedCount() {
+        return exhausted.sum();
+    }
+}
@@ -0,0 +1,73 @@
+package com.realtime.events.realtimeEvents.upstream;
+
+import com.realtime.events.realtimeEvents.status.StatusClassification;
+
+import java.time.Duration;
+
+/**
+ * One status poll as seen by the poller.
+ *
+ * @param outcome        what came of the poll
+ * @param classification the classified status, only for {@link Outcome#STATUS}
+ * @param retryAfter     the {@code Retry-After} upstream sent along, or how long a
+ *                       {@link Outcome#DEFERRED} or {@link Outcome#PAUSED} poll should wait;
+ *                       otherwise {@code null}
+ * @param etag           the validator to send as {@code If-None-Match} next time, or {@code null}
+ * @param bodyBytes      size of the status body that was read
+ */
+public record StatusPollResult(Outcome outcome, StatusClassification classification, Duration retryAfter,
+                               String etag, long bodyBytes) {
+
+    public enum Outcome {
+        /** Upstream sent a status. */
+        STATUS,
+        /** Upstream confirmed the status is unchanged without sending it. */
+        NOT_MODIFIED,
+        /** Upstream asked to be polled less often; the attempt counts. */
+        THROTTLED,
+        /** The poll failed transiently and is retried later; the attempt counts. */
+        DEFERRED,
+        /** The circuit breaker kept the poll from upstream; the same attempt is repeated. */
+        PAUSED
+    }
+
+    public StatusPollResult(StatusClassification classification, Duration retryAfter) {
+        this(classification, retryAfter, null, 0);
+    }
+
+    public StatusPollResult(StatusClassification classification, Duration retryAfter, String etag, long bodyBytes) {
+        this(Outcome.STATUS, classification, retryAfter, etag, bodyBytes);
+    }
+
+    public static StatusPollResult throttled(Duration retryAfter) {
+        return new StatusPollResult(Outcome.THROTTLED, null, retryAfter, null, 0);
+    }
+
+    public static StatusPollResult notModified(String etag, Duration retryAfter) {
+        return new StatusPollResult(Outcome.NOT_MODIFIED, null, retryAfter, etag, 0);
+    }
+
+    public static StatusPollResult deferred(Duration delay) {
+        return new StatusPollResult(Outcome.DEFERRED, null, delay, null, 0);
+    }
+
+    public static StatusPollResult paused(Duration delay) {
+        return new StatusPollResult(Outcome.PAUSED, null, delay, null, 0);
+    }
+
+    public boolean isThrottled() {
+        return outcome == Outcome.THROTTLED;
+    }
+
+    public boolean isNotModified() {
+        return outcome == Outcome.NOT_MODIFIED;
+    }
+
+    public boolean isDeferred() {
+        return outcome == Outcome.DEFERRED;
+    }
+
+    public boolean isPaused() {
+        return outcome == Outcome.PAUSED;
+    }
+}
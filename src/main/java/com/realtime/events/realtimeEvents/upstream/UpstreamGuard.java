@@ -0,0 +1,78 @@
+package com.realtime.events.realtimeEvents.upstream;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs upstream HTTP calls under the node's {@link CircuitBreaker} and {@link RetryBudget},
+ * with one outcome recorded per call however many polls the call answers.
+ * <p>
+ * Transient failures (network errors, timeouts, 5xx, 429 without {@code Retry-After}) no
+ * longer end the tracking: while the budget lasts they come back as a
+ * {@link StatusPollResult#deferred deferred} poll whose next attempt waits at least
+ * {@code retryDelay}. When enough calls fail the breaker opens and every poll on the node
+ * is {@link StatusPollResult#paused paused} without reaching upstream until it closes; a
+ * paused poll repeats its attempt, so an outage does not use up the polling policy. Other
+ * client errors still fail the call, since repeating them would not help.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class UpstreamGuard {
+
+    private final CircuitBreaker circuitBreaker;
+    private final RetryBudget retryBudget;
+    private final Duration retryDelay;
+
+    /**
+     * @param target   what the call is for, for logging
+     * @param upstream the call, only subscribed when the breaker lets it through
+     * @param degraded turns the paused or deferred poll standing in for a refused or
+     *                 transiently failed call into the call's result
+     */
+    public <T> Mono<T> call(String target, Supplier<Mono<T>> upstream, Function<StatusPollResult, T> degraded) {
+        return Mono.defer(() -> {
+            CircuitBreaker.Permission permission = circuitBreaker.tryAcquirePermission();
+            if (!permission.isGranted()) {
+                return Mono.just(degraded.apply(StatusPollResult.paused(circuitBreaker.getRetryDelay())));
+            }
+            retryBudget.onCall();
+            return upstream.get()
+                    .doOnNext(result -> circuitBreaker.onSuccess(permission))
+                    .onErrorResume(error -> recover(target, permission, error).map(degraded))
+                    .doOnCancel(() -> circuitBreaker.onCancel(permission));
+        });
+    }
+
+    private Mono<StatusPollResult> recover(String target, CircuitBreaker.Permission permission, Throwable error) {
+        if (!isTransient(error)) {
+            // Upstream answered, so it is up; the request itself was wrong
+            circuitBreaker.onSuccess(permission);
+            return Mono.error(error);
+        }
+        circuitBreaker.onFailure(permission);
+        if (circuitBreaker.getState() != CircuitBreaker.State.CLOSED) {
+            log.debug("Upstream unavailable, pausing {}: {}", target, error.toString());
+            return Mono.just(StatusPollResult.paused(circuitBreaker.getRetryDelay()));
+        }
+        if (retryBudget.tryRetry()) {
+            log.debug("Transient upstream failure for {}, retrying in {}: {}", target, retryDelay, error.toString());
+            return Mono.just(StatusPollResult.deferred(retryDelay));
+        }
+        return Mono.error(error);
+    }
+
+    static boolean isTransient(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+        }
+        return error instanceof WebClientRequestException || error instanceof TimeoutException;
+    }
+}
@@ -0,0 +1,19 @@
+package com.realtime.events.realtimeEvents.upstream;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Fetches and classifies the status of one trackingId from the upstream status API.
+ */
+public interface UpstreamStatusClient {
+
+    /**
+     * @param etag the validator of the last status seen for the trackingId, or {@code null};
+     *             clients that can send it conditionally may answer with a not-modified result
+     */
+    Mono<StatusPollResult> fetchStatus(String trackingId, int attemptIndex, String etag);
+
+    default Mono<StatusPollResult> fetchStatus(String trackingId, int attemptIndex) {
+        return fetchStatus(trackingId, attemptIndex, null);
+    }
+}
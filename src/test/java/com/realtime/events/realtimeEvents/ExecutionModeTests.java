@@ -0,0 +1,123 @@
+package com.realtime.events.realtimeEvents;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.dto.InquiryApiRequest;
+import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
+import com.realtime.events.realtimeEvents.upstream.StubUpstream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end behaviour every {@code realtime.execution-mode} has to keep. Each subclass boots
+ * the service in one mode on a random port against {@link StubUpstream} and drives it over
+ * HTTP, so the same assertions cover Tomcat and Reactor Netty.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:${random.uuid}",
+		"external.api.start-uri=/start",
+		"external.api.status-uri=/status/{trackingId}",
+		"polling.intervals=1"
+})
+abstract class ExecutionModeTests {
+
+	// Shared by every mode's cached context, so it is left running until the JVM exits
+	private static final StubUpstream UPSTREAM = new StubUpstream();
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Autowired
+	ApplicationContext context;
+
+	@LocalServerPort
+	private int port;
+
+	private WebTestClient client;
+
+	@DynamicPropertySource
+	static void upstream(DynamicPropertyRegistry registry) {
+		registry.add("external.api.baseUrl", UPSTREAM::baseUrl);
+	}
+
+	@BeforeEach
+	void client() {
+		client = WebTestClient.bindToServer()
+				.baseUrl("http://localhost:" + port)
+				.responseTimeout(Duration.ofSeconds(10))
+				.build();
+	}
+
+	@Test
+	void streamsATrackingFromAckToItsTerminalStatus() {
+		// The session is registered before the response headers are sent
+		Flux<ServerSentEvent<String>> events = client.get().uri("/sse/connect/{sessionId}", "s1")
+				.accept(MediaType.TEXT_EVENT_STREAM)
+				.exchange()
+				.expectStatus().isOk()
+				.returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {
+				})
+				.getResponseBody();
+
+		client.post().uri("/sse/start/{sessionId}", "s1")
+				.bodyValue(new InquiryApiRequest("done-1", "u1"))
+				.exchange()
+				.expectStatus().isOk();
+
+		StepVerifier.create(events)
+				.assertNext(event -> assertEquals("connected", event.comment()))
+				.assertNext(event -> assertEquals("ACK", data(event).getStatus()))
+				.assertNext(event -> {
+					InquiryApiResponse completed = data(event);
+					assertEquals("COMPLETED", completed.getStatus());
+					assertEquals("done-1", completed.getTrackingId());
+					assertNotNull(event.id());
+				})
+				.thenCancel()
+				.verify(Duration.ofSeconds(15));
+
+		// Ends the stream on the server too, which would otherwise hold up graceful shutdown
+		client.delete().uri("/sse/disconnect/{sessionId}", "s1")
+				.exchange()
+				.expectStatus().isOk();
+	}
+
+	@Test
+	void rejectsStartsWithoutASessionOrATrackingId() {
+		client.post().uri("/sse/start/{sessionId}", "unknown")
+				.bodyValue(new InquiryApiRequest("t1", "u1"))
+				.exchange()
+				.expectStatus().isBadRequest();
+		client.post().uri("/sse/start/{sessionId}", "unknown")
+				.bodyValue(new InquiryApiRequest("", "u1"))
+				.exchange()
+				.expectStatus().isBadRequest();
+	}
+
+	/**
+	 * Parses the data strictly, so frames must arrive as the response JSON itself rather
+	 * than as a serialized {@code SseFrame}.
+	 */
+	private InquiryApiResponse data(ServerSentEvent<String> event) {
+		assertNotNull(event.data());
+		try {
+			return objectMapper.readValue(event.data(), InquiryApiResponse.class);
+		} catch (Exception e) {
+			throw new AssertionError("Unexpected event data: " + event.data(), e);
+		}
+	}
+}
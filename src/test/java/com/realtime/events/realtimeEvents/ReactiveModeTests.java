@@ -0,0 +1,18 @@
+package com.realtime.events.realtimeEvents;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = "realtime.execution-mode=reactive")
+class ReactiveModeTests extends ExecutionModeTests {
+
+	@Test
+	void runsOnNettyWithoutAServletContainerOrTaskExecutor() {
+		assertInstanceOf(NettyWebServer.class, ((ReactiveWebServerApplicationContext) context).getWebServer());
+		assertFalse(context.containsBean("mvcTaskExecutor"));
+	}
+}
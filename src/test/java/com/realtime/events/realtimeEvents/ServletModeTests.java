@@ -0,0 +1,19 @@
+package com.realtime.events.realtimeEvents;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = "realtime.execution-mode=servlet")
+class ServletModeTests extends ExecutionModeTests {
+
+	@Test
+	void runsOnTomcatWithTheBoundedTaskExecutor() {
+		assertInstanceOf(TomcatWebServer.class, ((ServletWebServerApplicationContext) context).getWebServer());
+		assertInstanceOf(ThreadPoolTaskExecutor.class, context.getBean("mvcTaskExecutor"));
+	}
+}
@@ -0,0 +1,24 @@
+package com.realtime.events.realtimeEvents;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EnabledForJreRange(min = JRE.JAVA_21)
+@TestPropertySource(properties = "realtime.execution-mode=virtual")
+class VirtualThreadModeTests extends ExecutionModeTests {
+
+	@Test
+	void runsOnTomcatWithVirtualThreads() {
+		assertInstanceOf(TomcatWebServer.class, ((ServletWebServerApplicationContext) context).getWebServer());
+		assertTrue(Threading.VIRTUAL.isActive(context.getEnvironment()));
+		assertInstanceOf(SimpleAsyncTaskExecutor.class, context.getBean("mvcTaskExecutor"));
+	}
+}
@@ -0,0 +1,197 @@
+package com.realtime.events.realtimeEvents.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.cluster.LocalSessionEventBus;
+import com.realtime.events.realtimeEvents.cluster.SessionEventBus;
+import com.realtime.events.realtimeEvents.sessions.OverflowPolicy;
+import com.realtime.events.realtimeEvents.sessions.SseFrameEncoder;
+import com.realtime.events.realtimeEvents.sessions.SseSessionFactory;
+import com.realtime.events.realtimeEvents.sessions.SseSessionRegistry;
+import com.realtime.events.realtimeEvents.subscriptions.SubscriptionIndex;
+import com.realtime.events.realtimeEvents.tracking.TrackedPoll;
+import com.realtime.events.realtimeEvents.tracking.TrackingRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTest {
+
+	private final SseSessionRegistry sessionRegistry =
+			new SseSessionRegistry(new SseSessionFactory(16, 60, 32, OverflowPolicy.CONFLATE), 15, 45, 120);
+	private final SessionEventBus eventBus = new LocalSessionEventBus(sessionRegistry);
+	private final TrackingRegistry trackingRegistry =
+			new TrackingRegistry(eventBus, new SubscriptionIndex(eventBus), new SseFrameEncoder(new ObjectMapper()));
+
+	@Test
+	void startBucketAllowsTheBurstThenRefillsAtTheRatePerUser() {
+		AtomicLong clock = new AtomicLong(1_000_000_000L);
+		KeyedRateLimiter limiter = new KeyedRateLimiter(2, 3, clock::get);
+
+		assertEquals(0, limiter.tryAcquire("u1"));
+		assertEquals(0, limiter.tryAcquire("u1"));
+		assertEquals(0, limiter.tryAcquire("u1"));
+		assertEquals(500_000_000L, limiter.tryAcquire("u1"));
+		assertEquals(0, limiter.tryAcquire("u2"), "other users have their own bucket");
+
+		clock.addAndGet(500_000_000L);
+		assertEquals(0, limiter.tryAcquire("u1"));
+		assertTrue(limiter.tryAcquire("u1") > 0);
+
+		clock.addAndGet(10_000_000_000L);
+		assertEquals(2, limiter.evictIdle());
+		assertEquals(0, limiter.getKeyCount());
+	}
+
+	@Test
+	void evictionRacingWithStartsNeverHandsOutAFreshBucket() throws InterruptedException {
+		// Burst 1 and no refill: each key may be admitted once, however eviction interleaves
+		KeyedRateLimiter limiter = new KeyedRateLimiter(0.001, 1, () -> 0L);
+		int keys = 20_000;
+		AtomicInteger admitted = new AtomicInteger();
+		AtomicBoolean done = new AtomicBoolean();
+		Thread evictor = new Thread(() -> {
+			while (!done.get()) {
+				limiter.evictIdle();
+			}
+		});
+		List<Thread> starters = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			starters.add(new Thread(() -> {
+				for (int key = 0; key < keys; key++) {
+					if (limiter.tryAcquire("u" + key) == 0) {
+						admitted.incrementAndGet();
+					}
+				}
+			}));
+		}
+		evictor.start();
+		starters.forEach(Thread::start);
+		for (Thread starter : starters) {
+			starter.join();
+		}
+		done.set(true);
+		evictor.join();
+
+		assertTrue(admitted.get() <= keys, admitted.get() - keys + " starts over the limit");
+	}
+
+	@Test
+	void concurrentStartsNeverTakeMoreThanTheBurst() throws InterruptedException {
+		KeyedRateLimiter limiter = new KeyedRateLimiter(1, 50, () -> 0L);
+		AtomicInteger admitted = new AtomicInteger();
+		CountDownLatch ready = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			Thread thread = new Thread(() -> {
+				try {
+					ready.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int n = 0; n < 1000; n++) {
+					if (limiter.tryAcquire("u1") == 0) {
+						admitted.incrementAndGet();
+					}
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		ready.countDown();
+		for (Thread thread : threads) {
+			thread.join(TimeUnit.SECONDS.toMillis(10));
+		}
+
+		assertEquals(50, admitted.get());
+	}
+
+	@Test
+	void rateLimitedStartIsRejectedWith429AndRetryAfter() {
+		AdmissionControl admission = new AdmissionControl(trackingRegistry, 0, 0, 1, 1, 5);
+
+		admission.admitStart("u1");
+		AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class, () -> admission.admitStart("u1"));
+
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getStatus());
+		assertEquals(1, rejected.getRetryAfterSeconds());
+		assertEquals(1, admission.getRateLimitedStartCount());
+	}
+
+	@Test
+	void inFlightCapShedsNewChainsUntilOneEnds() {
+		AdmissionControl admission = new AdmissionControl(trackingRegistry, 2, 0, 0, 0, 7);
+		admission.releaseTrackingsOnEnd();
+		TrackedPoll t1 = startChain(admission, "t1");
+		startChain(admission, "t2");
+
+		AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class, admission::admitTracking);
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatus());
+		assertEquals(7, rejected.getRetryAfterSeconds());
+
+		trackingRegistry.complete(t1);
+		assertEquals(1, admission.getInFlightTrackings());
+		startChain(admission, "t3");
+		assertEquals(2, admission.getInFlightTrackings());
+		assertEquals(1, admission.getRejectedTrackingCount());
+	}
+
+	@Test
+	void connectionCapIsReleasedWhenAStreamEnds() {
+		AdmissionControl admission = new AdmissionControl(trackingRegistry, 0, 1, 0, 0, 5);
+		Sinks.Empty<Void> end = Sinks.empty();
+
+		Disposable first = admission.holdConnection(end.asMono().flux()).subscribe();
+		assertEquals(1, admission.getOpenConnections());
+		assertThrows(AdmissionRejectedException.class, admission::checkConnectionCapacity);
+
+		end.tryEmitEmpty();
+		assertTrue(first.isDisposed());
+		admission.checkConnectionCapacity();
+		admission.holdConnection(Flux.never()).subscribe();
+
+		assertEquals(1, admission.getOpenConnections());
+		assertEquals(1, admission.getRejectedConnectionCount());
+	}
+
+	@Test
+	void connectionPermitIsTiedToTheSubscription() {
+		AdmissionControl admission = new AdmissionControl(trackingRegistry, 0, 1, 0, 0, 5);
+
+		// A stream that is checked but never subscribed, like a response that is never written
+		admission.checkConnectionCapacity();
+		Flux<Object> abandoned = admission.holdConnection(Flux.never());
+		assertEquals(0, admission.getOpenConnections());
+
+		Disposable held = admission.holdConnection(Flux.never()).subscribe();
+		assertEquals(1, admission.getOpenConnections());
+		// Losing the race for the last permit after the check fails the stream instead of going over
+		StepVerifier.create(abandoned)
+				.expectError(AdmissionRejectedException.class)
+				.verify(Duration.ofSeconds(1));
+		assertEquals(1, admission.getOpenConnections());
+
+		held.dispose();
+		assertEquals(0, admission.getOpenConnections());
+	}
+
+	private TrackedPoll startChain(AdmissionControl admission, String trackingId) {
+		admission.admitTracking();
+		TrackedPoll tracked = trackingRegistry.subscribe(trackingId, "s-" + trackingId);
+		assertTrue(tracked.tryStart());
+		return tracked;
+	}
+}
@@ -0,0 +1,31 @@
+package com.realtime.events.realtimeEvents.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.sessions.OverflowPolicy;
+import com.realtime.events.realtimeEvents.sessions.SseSessionFactory;
+import com.realtime.events.realtimeEvents.sessions.SseSessionRegistry;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * A bare node for multi-JVM tests: {@code PeerNode <nodeId> <secret> <port> <peer> <sessionId>}
+ * connects one session, prints {@code READY} and then {@code EVENT <status>} for every
+ * event that reaches it.
+ */
+public class PeerNode {
+
+	public static void main(String[] args) throws InterruptedException {
+		SseSessionRegistry registry = new SseSessionRegistry(new SseSessionFactory(16, 60, 32, OverflowPolicy.CONFLATE), 15, 45, 120);
+		TcpPeerEventBus bus = new TcpPeerEventBus(registry, new ObjectMapper(), args[0], args[1], "localhost",
+				Integer.parseInt(args[2]), List.of(TcpPeerEventBus.Peer.parse(args[3])), 1024, 64, Duration.ofMillis(2));
+		bus.start();
+		registry.connect(args[4]).attach(-1).subscribe(event -> {
+			System.out.println("EVENT " + event.data().getResponse().getStatus());
+			System.out.flush();
+		});
+		System.out.println("READY");
+		System.out.flush();
+		Thread.currentThread().join();
+	}
+}
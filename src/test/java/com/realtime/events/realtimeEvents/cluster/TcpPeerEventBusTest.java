@@ -0,0 +1,209 @@
+package com.realtime.events.realtimeEvents.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
+import com.realtime.events.realtimeEvents.sessions.OverflowPolicy;
+import com.realtime.events.realtimeEvents.sessions.SseFrame;
+import com.realtime.events.realtimeEvents.sessions.SseFrameEncoder;
+import com.realtime.events.realtimeEvents.sessions.SseSessionFactory;
+import com.realtime.events.realtimeEvents.sessions.SseSessionRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TcpPeerEventBusTest {
+
+	private static final SseFrameEncoder ENCODER = new SseFrameEncoder(new ObjectMapper());
+	private static final String SECRET = "cluster-secret";
+	private final List<TcpPeerEventBus> buses = new ArrayList<>();
+	private Process child;
+
+	@AfterEach
+	void tearDown() {
+		buses.forEach(TcpPeerEventBus::close);
+		if (child != null) {
+			child.destroyForcibly();
+		}
+	}
+
+	@Test
+	void routesEventsToTheNodeThatOwnsTheSession() {
+		int portA = freePort();
+		int portB = freePort();
+		SseSessionRegistry registryA = registry();
+		SseSessionRegistry registryB = registry();
+		TcpPeerEventBus nodeA = start(registryA, "node-a", portA, "node-b@localhost:" + portB);
+		TcpPeerEventBus nodeB = start(registryB, "node-b", portB, "node-a@localhost:" + portA);
+		List<String> goneOnB = new CopyOnWriteArrayList<>();
+		nodeB.onSessionGone(goneOnB::add);
+
+		registryA.connect("s1");
+		await().atMost(Duration.ofSeconds(5)).until(() -> nodeB.isKnown("s1"));
+		assertFalse(nodeB.isKnown("elsewhere"));
+
+		StepVerifier.create(registryA.get("s1").attach(-1))
+				.then(() -> IntStream.range(0, 100).forEach(i ->
+						assertTrue(nodeB.publish("s1", frame("IN_PROGRESS", "step " + i, "t1")))))
+				.expectNextCount(99)
+				.expectNextMatches(event -> event.data().getResponse().getMessage().equals("step 99"))
+				.thenCancel()
+				.verify(Duration.ofSeconds(5));
+		assertEquals(100, nodeB.getForwardedCount());
+
+		registryA.remove("s1");
+		await().atMost(Duration.ofSeconds(5)).until(() -> !nodeB.isKnown("s1"));
+		assertEquals(List.of("s1"), goneOnB);
+	}
+
+	@Test
+	void helloResyncsSessionsAfterAPeerRestarts() {
+		int portA = freePort();
+		int portB = freePort();
+		SseSessionRegistry registryB = registry();
+		TcpPeerEventBus nodeB = start(registryB, "node-b", portB, "node-a@localhost:" + portA);
+		SseSessionRegistry registryA = registry();
+		registryA.connect("before-start"); // connected before the bus existed, only HELLO announces it
+		start(registryA, "node-a", portA, "node-b@localhost:" + portB);
+
+		await().atMost(Duration.ofSeconds(10)).until(() -> nodeB.isKnown("before-start"));
+	}
+
+	@Test
+	void restoringASessionAfterARestartLeavesItWithThePeerServingIt() {
+		int portA = freePort();
+		int portB = freePort();
+		SseSessionRegistry registryB = registry();
+		TcpPeerEventBus nodeB = start(registryB, "node-b", portB, "node-a@localhost:" + portA);
+		registryB.connect("moved"); // the client reconnected to B while A was down
+		SseSessionRegistry registryA = registry();
+		TcpPeerEventBus nodeA = start(registryA, "node-a", portA, "node-b@localhost:" + portB);
+		registryA.restore("moved"); // what resuming A's persisted trackings does
+		registryA.connect("marker");
+		// A's frames arrive in order, so anything the restore announced is in by now
+		await().atMost(Duration.ofSeconds(5)).until(() -> nodeB.isKnown("marker"));
+
+		// B keeps the event for its detached client instead of sending it to A
+		assertTrue(nodeB.publish("moved", frame("IN_PROGRESS", "on B", "t1")));
+		assertEquals(0, nodeB.getForwardedCount());
+		// and A's restored copy forwards to B
+		await().atMost(Duration.ofSeconds(5)).until(() -> {
+			nodeA.publish("moved", frame("IN_PROGRESS", "from A", "t1"));
+			return nodeA.getForwardedCount() > 0;
+		});
+	}
+
+	@Test
+	void peersWithoutTheSharedSecretAreShutOut() throws Exception {
+		int portA = freePort();
+		int portB = freePort();
+		SseSessionRegistry registryB = registry();
+		TcpPeerEventBus nodeB = start(registryB, "node-b", SECRET, portB, "node-a@localhost:" + portA);
+		SseSessionRegistry registryA = registry();
+		registryA.connect("stolen");
+		start(registryA, "node-a", "wrong-secret", portA, "node-b@localhost:" + portB);
+
+		// A stranger skipping HELLO to push an event straight at a session of node B
+		registryB.connect("victim");
+		byte[] json = new ObjectMapper().writeValueAsBytes(
+				PeerFrame.event("node-a", "victim", new InquiryApiResponse("COMPLETED", "forged", "t1")));
+		try (Socket socket = new Socket("localhost", portB)) {
+			socket.getOutputStream().write(ByteBuffer.allocate(Integer.BYTES + json.length).putInt(json.length).put(json).array());
+			socket.setSoTimeout(5000);
+			assertEquals(-1, socket.getInputStream().read(), "the connection is closed");
+		}
+
+		await().atMost(Duration.ofSeconds(5)).until(() -> nodeB.getRejectedCount() >= 2);
+		assertFalse(nodeB.isKnown("stolen"));
+		StepVerifier.create(registryB.get("victim").attach(-1))
+				.expectSubscription()
+				.expectNoEvent(Duration.ofMillis(200))
+				.thenCancel()
+				.verify();
+	}
+
+	@Test
+	void refusesToStartWithoutANodeIdOrSecret() {
+		assertThrows(IllegalArgumentException.class, () -> new TcpPeerEventBus(registry(), new ObjectMapper(), "", SECRET,
+				"localhost", 0, List.of(), 1024, 64, Duration.ofMillis(2)));
+		assertThrows(IllegalArgumentException.class, () -> new TcpPeerEventBus(registry(), new ObjectMapper(), "node-a", "",
+				"localhost", 0, List.of(), 1024, 64, Duration.ofMillis(2)));
+	}
+
+	@Test
+	void deliversAcrossJvms() throws Exception {
+		int parentPort = freePort();
+		int childPort = freePort();
+		SseSessionRegistry registry = registry();
+		TcpPeerEventBus parent = start(registry, "parent", parentPort, "child@localhost:" + childPort);
+
+		child = new ProcessBuilder(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+				"-cp", System.getProperty("java.class.path"), PeerNode.class.getName(),
+				"child", SECRET, String.valueOf(childPort), "parent@localhost:" + parentPort, "remote-1")
+				.redirectErrorStream(true)
+				.start();
+		BufferedReader output = new BufferedReader(new InputStreamReader(child.getInputStream()));
+
+		await().atMost(Duration.ofSeconds(20)).until(() -> parent.isKnown("remote-1"));
+		assertTrue(parent.publish("remote-1", frame("COMPLETED", "Process completed", "t1")));
+
+		assertEquals("EVENT COMPLETED", readLineStartingWith(output, "EVENT", Duration.ofSeconds(10)));
+		child.destroy();
+		assertTrue(child.waitFor(10, TimeUnit.SECONDS));
+	}
+
+	private TcpPeerEventBus start(SseSessionRegistry registry, String nodeId, int port, String peer) {
+		return start(registry, nodeId, SECRET, port, peer);
+	}
+
+	private TcpPeerEventBus start(SseSessionRegistry registry, String nodeId, String secret, int port, String peer) {
+		TcpPeerEventBus bus = new TcpPeerEventBus(registry, new ObjectMapper(), nodeId, secret, "localhost", port,
+				List.of(TcpPeerEventBus.Peer.parse(peer)), 1024, 64, Duration.ofMillis(2));
+		bus.start();
+		buses.add(bus);
+		return bus;
+	}
+
+	private static SseSessionRegistry registry() {
+		return new SseSessionRegistry(new SseSessionFactory(16, 60, 32, OverflowPolicy.CONFLATE), 15, 45, 120);
+	}
+
+	private static int freePort() {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String readLineStartingWith(BufferedReader reader, String prefix, Duration timeout) throws IOException {
+		long deadline = System.nanoTime() + timeout.toNanos();
+		String line;
+		while (System.nanoTime() < deadline && (line = reader.readLine()) != null) {
+			if (line.startsWith(prefix)) {
+				return line;
+			}
+		}
+		return null;
+	}
+
+	private static SseFrame frame(String status, String message, String trackingId) {
+		return ENCODER.encode(new InquiryApiResponse(status, message, trackingId));
+	}
+}
@@ -0,0 +1,55 @@
+package com.realtime.events.realtimeEvents.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.SpringApplication;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionModeEnvironmentPostProcessorTest {
+
+	private final ExecutionModeEnvironmentPostProcessor postProcessor = new ExecutionModeEnvironmentPostProcessor();
+
+	@Test
+	void defaultsToServletOnPlatformThreads() {
+		MockEnvironment environment = new MockEnvironment();
+
+		postProcessor.postProcessEnvironment(environment, new SpringApplication());
+
+		assertEquals("servlet", environment.getProperty("spring.main.web-application-type"));
+		assertEquals("false", environment.getProperty("spring.threads.virtual.enabled"));
+	}
+
+	@Test
+	void reactiveModeSelectsWebFluxAndLeavesExplicitSettingsAlone() {
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("realtime.execution-mode", " Reactive ")
+				.withProperty("spring.threads.virtual.enabled", "true");
+
+		postProcessor.postProcessEnvironment(environment, new SpringApplication());
+
+		assertEquals("reactive", environment.getProperty("spring.main.web-application-type"));
+		assertEquals("true", environment.getProperty("spring.threads.virtual.enabled"));
+	}
+
+	@Test
+	@EnabledForJreRange(max = JRE.JAVA_20)
+	void virtualModeFailsFastBeforeJava21() {
+		MockEnvironment environment = new MockEnvironment().withProperty("realtime.execution-mode", "virtual");
+
+		assertThrows(IllegalStateException.class, () -> postProcessor.postProcessEnvironment(environment, new SpringApplication()));
+	}
+
+	@Test
+	@EnabledForJreRange(min = JRE.JAVA_21)
+	void virtualModeEnablesVirtualThreadsOnTomcat() {
+		MockEnvironment environment = new MockEnvironment().withProperty("realtime.execution-mode", "virtual");
+
+		postProcessor.postProcessEnvironment(environment, new SpringApplication());
+
+		assertEquals("servlet", environment.getProperty("spring.main.web-application-type"));
+		assertEquals("true", environment.getProperty("spring.threads.virtual.enabled"));
+	}
+}
@@ -0,0 +1,123 @@
+package com.realtime.events.realtimeEvents.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.admission.AdmissionControl;
+import com.realtime.events.realtimeEvents.cluster.LocalSessionEventBus;
+import com.realtime.events.realtimeEvents.cluster.SessionEventBus;
+import com.realtime.events.realtimeEvents.polling.FixedPollingIntervalPolicy;
+import com.realtime.events.realtimeEvents.scheduling.PollScheduler;
+import com.realtime.events.realtimeEvents.services.CallbackSignatureVerifier;
+import com.realtime.events.realtimeEvents.services.ChangeDetectionCounters;
+import com.realtime.events.realtimeEvents.services.TrackingStatusHandler;
+import com.realtime.events.realtimeEvents.sessions.OverflowPolicy;
+import com.realtime.events.realtimeEvents.sessions.SseFrameEncoder;
+import com.realtime.events.realtimeEvents.sessions.SseSessionFactory;
+import com.realtime.events.realtimeEvents.sessions.SseSessionRegistry;
+import com.realtime.events.realtimeEvents.status.JsonFieldStatusClassifier;
+import com.realtime.events.realtimeEvents.subscriptions.SubscriptionIndex;
+import com.realtime.events.realtimeEvents.tracking.TrackedPoll;
+import com.realtime.events.realtimeEvents.tracking.TrackingMode;
+import com.realtime.events.realtimeEvents.tracking.TrackingRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CallbackControllerTest {
+
+	private static final String SECRET = "top-secret";
+
+	private final SseSessionRegistry sessionRegistry =
+			new SseSessionRegistry(new SseSessionFactory(16, 60, 32, OverflowPolicy.CONFLATE), 15, 45, 120);
+	private final SessionEventBus eventBus = new LocalSessionEventBus(sessionRegistry);
+	private final SseFrameEncoder encoder = new SseFrameEncoder(new ObjectMapper());
+	private final TrackingRegistry trackingRegistry = new TrackingRegistry(eventBus, new SubscriptionIndex(eventBus), encoder);
+	private final PollScheduler pollScheduler = new PollScheduler(Duration.ofMillis(10), 64);
+	private final CallbackController controller = new CallbackController(trackingRegistry,
+			new TrackingStatusHandler(eventBus, trackingRegistry, new AdmissionControl(trackingRegistry, 0, 0, 0, 0, 5),
+					encoder, WebClient.create(), new FixedPollingIntervalPolicy(List.of(Duration.ofSeconds(1))),
+					new SimpleMeterRegistry(), new ChangeDetectionCounters(), pollScheduler),
+			new JsonFieldStatusClassifier(new ObjectMapper().getFactory(), "status", Map.of("DONE", "COMPLETED")),
+			new CallbackSignatureVerifier(SECRET));
+	private TrackedPoll tracked;
+
+	@BeforeEach
+	void setUp() {
+		sessionRegistry.connect("s1");
+		tracked = trackingRegistry.subscribe("t1", "s1");
+		tracked.tryStart();
+		tracked.setMode(TrackingMode.CALLBACK);
+		tracked.markAcknowledged();
+	}
+
+	@AfterEach
+	void tearDown() {
+		pollScheduler.stop();
+	}
+
+	@Test
+	void signedCallbacksArePublishedAndATerminalOneEndsTheChain() throws Exception {
+		byte[] running = body("RUNNING");
+		assertEquals(HttpStatus.OK, receive("t1", sign(running), running).getStatusCode());
+		assertSame(tracked, trackingRegistry.find("t1"));
+
+		byte[] done = body("DONE");
+		assertEquals(HttpStatus.OK, receive("t1", "sha256=" + sign(done), done).getStatusCode());
+
+		assertNull(trackingRegistry.find("t1"));
+		assertTrue(tracked.isCancelled());
+		assertEquals(List.of("IN_PROGRESS", "COMPLETED"), statuses());
+	}
+
+	@Test
+	void callbacksWithAMissingOrWrongSignatureAreRefused() throws Exception {
+		byte[] done = body("DONE");
+
+		assertEquals(HttpStatus.UNAUTHORIZED, receive("t1", null, done).getStatusCode());
+		assertEquals(HttpStatus.UNAUTHORIZED, receive("t1", sign(body("RUNNING")), done).getStatusCode());
+
+		assertSame(tracked, trackingRegistry.find("t1"));
+		assertEquals(List.of(), statuses());
+	}
+
+	@Test
+	void callbacksForUnknownTrackingIdsAreNotFound() throws Exception {
+		byte[] done = body("DONE");
+
+		assertEquals(HttpStatus.NOT_FOUND, receive("unknown", sign(done), done).getStatusCode());
+		assertSame(tracked, trackingRegistry.find("t1"));
+	}
+
+	private ResponseEntity<String> receive(String trackingId, String signature, byte[] body) {
+		return controller.receiveStatus(trackingId, signature, body).block();
+	}
+
+	private List<String> statuses() {
+		return sessionRegistry.get("s1").attach(0).take(Duration.ofMillis(100))
+				.map(event -> event.data().getResponse().getStatus())
+				.collectList().block();
+	}
+
+	private static byte[] body(String status) {
+		return ("{\"trackingId\":\"t1\",\"status\":\"" + status + "\"}").getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static String sign(byte[] body) throws Exception {
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+		return HexFormat.of().formatHex(mac.doFinal(body));
+	}
+}
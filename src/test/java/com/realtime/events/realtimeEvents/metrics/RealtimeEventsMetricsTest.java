@@ -0,0 +1,63 @@
+package com.realtime.events.realtimeEvents.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.admission.AdmissionControl;
+import com.realtime.events.realtimeEvents.cluster.LocalSessionEventBus;
+import com.realtime.events.realtimeEvents.cluster.SessionEventBus;
+import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
+import com.realtime.events.realtimeEvents.scheduling.PollScheduler;
+import com.realtime.events.realtimeEvents.services.ChangeDetectionCounters;
+import com.realtime.events.realtimeEvents.sessions.OverflowPolicy;
+import com.realtime.events.realtimeEvents.sessions.SseFrame;
+import com.realtime.events.realtimeEvents.sessions.SseFrameEncoder;
+import com.realtime.events.realtimeEvents.sessions.SseSessionFactory;
+import com.realtime.events.realtimeEvents.sessions.SseSessionRegistry;
+import com.realtime.events.realtimeEvents.subscriptions.SubscriptionIndex;
+import com.realtime.events.realtimeEvents.tracking.TrackingRegistry;
+import com.realtime.events.realtimeEvents.upstream.CircuitBreaker;
+import com.realtime.events.realtimeEvents.upstream.RetryBudget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RealtimeEventsMetricsTest {
+
+	private static final SseFrameEncoder ENCODER = new SseFrameEncoder(new ObjectMapper());
+	private final SseSessionFactory sessionFactory = new SseSessionFactory(16, 60, 32, OverflowPolicy.CONFLATE);
+	private final SseSessionRegistry sessionRegistry = new SseSessionRegistry(sessionFactory, 15, 45, 120);
+	private final SessionEventBus eventBus = new LocalSessionEventBus(sessionRegistry);
+	private final PollScheduler pollScheduler = new PollScheduler(Duration.ofMillis(10), 64);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@AfterEach
+	void tearDown() {
+		pollScheduler.stop();
+	}
+
+	@Test
+	void exposesSessionEmitAndSchedulerState() {
+		TrackingRegistry trackingRegistry = new TrackingRegistry(eventBus, new SubscriptionIndex(eventBus), ENCODER);
+		new RealtimeEventsMetrics(sessionRegistry, sessionFactory, trackingRegistry, pollScheduler,
+				new AdmissionControl(trackingRegistry, 10, 10, 5, 20, 5), new ChangeDetectionCounters(),
+				new CircuitBreaker(10, 5, 50, Duration.ofSeconds(1), Duration.ofSeconds(1), System::nanoTime), new RetryBudget(0.1, 10))
+				.bindTo(meterRegistry);
+
+		sessionRegistry.connect("s1").emit(frame("IN_PROGRESS", "working", "t1"));
+		pollScheduler.schedule(() -> { }, Duration.ofMinutes(1));
+
+		assertEquals(1, meterRegistry.get("sse.sessions.active").gauge().value());
+		assertEquals(1, meterRegistry.get("sse.emit").tag("result", "FAIL_ZERO_SUBSCRIBER").functionCounter().count());
+		assertEquals(0, meterRegistry.get("sse.emit").tag("result", "OK").functionCounter().count());
+		assertEquals(1, meterRegistry.get("polling.scheduler.pending").gauge().value());
+		assertEquals(1, meterRegistry.get("upstream.circuit.state").tag("state", "CLOSED").gauge().value());
+		assertEquals(10, meterRegistry.get("upstream.retry.budget.tokens").gauge().value());
+	}
+
+	private static SseFrame frame(String status, String message, String trackingId) {
+		return ENCODER.encode(new InquiryApiResponse(status, message, trackingId));
+	}
+}
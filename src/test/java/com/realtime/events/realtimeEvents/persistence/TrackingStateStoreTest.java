@@ -0,0 +1,307 @@
+package com.realtime.events.realtimeEvents.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.admission.AdmissionControl;
+import com.realtime.events.realtimeEvents.cluster.LocalSessionEventBus;
+import com.realtime.events.realtimeEvents.cluster.SessionEventBus;
+import com.realtime.events.realtimeEvents.dto.InquiryApiRequest;
+import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
+import com.realtime.events.realtimeEvents.polling.FixedPollingIntervalPolicy;
+import com.realtime.events.realtimeEvents.scheduling.PollScheduler;
+import com.realtime.events.realtimeEvents.services.ChangeDetectionCounters;
+import com.realtime.events.realtimeEvents.services.ExternalProcessService;
+import com.realtime.events.realtimeEvents.services.TrackingStatusHandler;
+import com.realtime.events.realtimeEvents.sessions.OverflowPolicy;
+import com.realtime.events.realtimeEvents.sessions.SseFrameEncoder;
+import com.realtime.events.realtimeEvents.sessions.SseSessionFactory;
+import com.realtime.events.realtimeEvents.sessions.SseSessionRegistry;
+import com.realtime.events.realtimeEvents.status.StatusClassification;
+import com.realtime.events.realtimeEvents.subscriptions.SubscriptionIndex;
+import com.realtime.events.realtimeEvents.tracking.TrackedPoll;
+import com.realtime.events.realtimeEvents.tracking.TrackingMode;
+import com.realtime.events.realtimeEvents.tracking.TrackingRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // commit per repository call, as the flush does
+class TrackingStateStoreTest {
+
+	@Autowired
+	private TrackingStateRepository repository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private final SseSessionRegistry sessionRegistry =
+			new SseSessionRegistry(new SseSessionFactory(16, 60, 32, OverflowPolicy.CONFLATE), 15, 45, 120);
+	private final SessionEventBus eventBus = new LocalSessionEventBus(sessionRegistry);
+	private final TrackingRegistry trackingRegistry =
+			new TrackingRegistry(eventBus, new SubscriptionIndex(eventBus), new SseFrameEncoder(new ObjectMapper()));
+	private final PollScheduler pollScheduler = new PollScheduler(Duration.ofMillis(10), 64);
+	private TrackingStateStore store;
+
+	@BeforeEach
+	void setUp() {
+		store = new TrackingStateStore(repository, trackingRegistry);
+		store.trackRegistryChanges();
+	}
+
+	@AfterEach
+	void tearDown() {
+		pollScheduler.stop();
+		repository.deleteAll();
+	}
+
+	@Test
+	void flushWritesEachAcknowledgedChainOnceAndDeletesEndedOnes() {
+		TrackedPoll tracked = trackingRegistry.subscribe("t1", "s1");
+		trackingRegistry.subscribe("t1", "s2");
+		tracked.markAcknowledged();
+		trackingRegistry.recordNextAttempt(tracked, 3, Duration.ofSeconds(2));
+		trackingRegistry.publish(tracked, new InquiryApiResponse("IN_PROGRESS", "working", "t1"));
+		trackingRegistry.subscribe("t2", "s1"); // start not acknowledged yet
+		assertEquals(2, store.getPendingCount());
+
+		store.flush();
+
+		assertEquals(0, store.getPendingCount());
+		TrackingState state = repository.findById("t1").orElseThrow();
+		assertEquals(Set.of("s1", "s2"), Set.of(state.getSessionIds().split(",")));
+		assertEquals(3, state.getAttemptIndex());
+		assertEquals("IN_PROGRESS", state.getLastStatus());
+		assertTrue(state.getNextDueAt().isAfter(Instant.now()));
+		assertNotNull(state.getAcknowledgedAt());
+		assertFalse(repository.existsById("t2"));
+
+		trackingRegistry.complete(tracked);
+		store.flush();
+		assertFalse(repository.existsById("t1"));
+	}
+
+	@Test
+	void flushReplacesExistingRowsWithoutReadingThem() {
+		List<TrackedPoll> chains = List.of("t1", "t2", "t3").stream()
+				.map(trackingId -> trackingRegistry.subscribe(trackingId, "s1"))
+				.toList();
+		chains.forEach(TrackedPoll::markAcknowledged);
+		chains.forEach(store::markDirty);
+		store.flush();
+		assertEquals(3, repository.count());
+		chains.forEach(tracked -> trackingRegistry.recordNextAttempt(tracked, 2, Duration.ofSeconds(1)));
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		store.flush();
+
+		assertEquals(0, statistics.getEntityLoadCount());
+		assertEquals(3, statistics.getEntityInsertCount());
+		assertEquals(2, statistics.getPrepareStatementCount(), "one bulk delete and one insert batch");
+		assertEquals(2, repository.findById("t2").orElseThrow().getAttemptIndex());
+	}
+
+	@Test
+	void chainsWithMoreSessionsThanTheColumnHoldsArePersistedWithThoseThatFit() {
+		TrackedPoll crowded = null;
+		for (int i = 0; i < 200; i++) {
+			crowded = trackingRegistry.subscribe("t1", UUID.randomUUID().toString());
+		}
+		crowded.markAcknowledged();
+		TrackedPoll other = trackingRegistry.subscribe("t2", "s1");
+		other.markAcknowledged();
+		store.markDirty(other);
+
+		store.flush();
+
+		String sessionIds = repository.findById("t1").orElseThrow().getSessionIds();
+		assertTrue(sessionIds.length() <= 4000);
+		assertTrue(crowded.getSessionIds().containsAll(List.of(sessionIds.split(","))));
+		assertTrue(repository.existsById("t2"));
+		assertEquals(0, store.getPendingCount());
+	}
+
+	@Test
+	void aRowTheDatabaseRefusesIsIsolatedAndDroppedAfterRepeatedFailures() {
+		TrackedPoll refused = trackingRegistry.subscribe("t1", "s1");
+		refused.setUserId("u".repeat(300)); // longer than the column
+		refused.markAcknowledged();
+		TrackedPoll other = trackingRegistry.subscribe("t2", "s1");
+		other.markAcknowledged();
+		store.markDirty(refused);
+		store.markDirty(other);
+
+		store.flush();
+
+		assertTrue(repository.existsById("t2"), "the rest of the batch is still written");
+		assertFalse(repository.existsById("t1"));
+		assertEquals(1, store.getPendingCount());
+		for (int i = 1; i < TrackingStateStore.MAX_WRITE_ATTEMPTS; i++) {
+			store.flush();
+		}
+		assertEquals(0, store.getPendingCount());
+	}
+
+	@Test
+	void resumeRestoresChainsAndReleasesOverduePollsAtTheConfiguredRate() {
+		Instant now = Instant.now();
+		repository.saveAll(List.of(
+				state("t1", "s1", 4, now.minusSeconds(60), TrackingMode.POLLING),
+				state("t2", "s2,s3", 2, now.minusSeconds(30), TrackingMode.POLLING),
+				state("t3", "s4", 0, now.plusSeconds(600), TrackingMode.CALLBACK_WITH_FALLBACK),
+				state("t4", "s5", 0, null, TrackingMode.CALLBACK)));
+		RecordingProcessService processService = new RecordingProcessService();
+		AdmissionControl admissionControl = new AdmissionControl(trackingRegistry, 2, 0, 0, 0, 1);
+
+		new TrackingResumer(repository, trackingRegistry, sessionRegistry, processService, handler(trackingRegistry, eventBus),
+				admissionControl, 10).resume();
+
+		// t4 is pure callback and only re-registered; the others resume earliest due first, 100ms apart
+		assertEquals(Set.of("t1", "t2", "t3"), processService.delays.keySet());
+		assertEquals(Duration.ZERO, processService.delays.get("t1"));
+		assertEquals(Duration.ofMillis(100), processService.delays.get("t2"));
+		assertTrue(processService.delays.get("t3").compareTo(Duration.ofSeconds(590)) > 0);
+		assertEquals(4, processService.attempts.get("t1"));
+
+		TrackedPoll t2 = trackingRegistry.find("t2");
+		assertEquals(Set.of("s2", "s3"), t2.getSessionIds());
+		assertTrue(t2.getElapsed().compareTo(Duration.ofMinutes(5)) >= 0);
+		assertNotNull(trackingRegistry.find("t4"));
+		assertNotNull(sessionRegistry.get("s3"));
+		assertFalse(sessionRegistry.get("s3").isConnected());
+		// Restored chains count towards the in-flight cap even above it
+		assertEquals(4, admissionControl.getInFlightTrackings());
+	}
+
+	@Test
+	void flushBeforeTheFirstResumedPollKeepsThePersistedPosition() {
+		Instant dueAt = Instant.now().plusSeconds(600);
+		repository.saveAll(List.of(
+				state("t1", "s1", 4, Instant.now().minusSeconds(60), TrackingMode.POLLING),
+				state("t2", "s2", 2, dueAt, TrackingMode.POLLING)));
+		new TrackingResumer(repository, trackingRegistry, sessionRegistry, new RecordingProcessService(),
+				handler(trackingRegistry, eventBus), new AdmissionControl(trackingRegistry, 0, 0, 0, 0, 1), 10).resume();
+
+		store.flush();
+
+		TrackingState overdue = repository.findById("t1").orElseThrow();
+		assertEquals(4, overdue.getAttemptIndex());
+		assertNotNull(overdue.getNextDueAt());
+		TrackingState pending = repository.findById("t2").orElseThrow();
+		assertEquals(2, pending.getAttemptIndex());
+		assertTrue(Duration.between(dueAt, pending.getNextDueAt()).abs().compareTo(Duration.ofSeconds(1)) < 0);
+	}
+
+	@Test
+	void resumedChainDoesNotResendTheLastStatusAfterARestart() {
+		StatusClassification running = new StatusClassification(StatusClassification.IN_PROGRESS, "RUNNING, progress=10");
+		sessionRegistry.connect("s1");
+		TrackedPoll tracked = trackingRegistry.subscribe("t1", "s1");
+		tracked.markAcknowledged();
+		handler(trackingRegistry, eventBus).handleStatus(tracked, running);
+		store.flush();
+
+		// A fresh process: new registries over the same database
+		SseSessionRegistry restartedSessions =
+				new SseSessionRegistry(new SseSessionFactory(16, 60, 32, OverflowPolicy.CONFLATE), 15, 45, 120);
+		SessionEventBus restartedBus = new LocalSessionEventBus(restartedSessions);
+		TrackingRegistry restartedTrackings =
+				new TrackingRegistry(restartedBus, new SubscriptionIndex(restartedBus), new SseFrameEncoder(new ObjectMapper()));
+		TrackingStatusHandler restartedHandler = handler(restartedTrackings, restartedBus);
+		new TrackingResumer(repository, restartedTrackings, restartedSessions, new RecordingProcessService(),
+				restartedHandler, new AdmissionControl(restartedTrackings, 0, 0, 0, 0, 1), 10).resume();
+		TrackedPoll resumed = restartedTrackings.find("t1");
+
+		restartedHandler.handleStatus(resumed, running);
+		restartedHandler.handleStatus(resumed, new StatusClassification(StatusClassification.IN_PROGRESS, "RUNNING, progress=20"));
+
+		List<String> sent = restartedSessions.get("s1").attach(0).take(Duration.ofMillis(100))
+				.map(event -> event.data().getResponse().getMessage())
+				.collectList().block();
+		assertEquals(List.of("RUNNING, progress=20"), sent);
+	}
+
+	@Test
+	void resumedCallbackChainsKeepTheDeadlineOfTheirAck() {
+		// Acknowledged five minutes before the restart, a four minute deadline has passed
+		repository.saveAll(List.of(state("t1", "s1", 0, null, TrackingMode.CALLBACK)));
+		TrackingStatusHandler handler = handler(trackingRegistry, eventBus);
+		ReflectionTestUtils.setField(handler, "callbackTimeoutSeconds", 240L);
+
+		new TrackingResumer(repository, trackingRegistry, sessionRegistry, new RecordingProcessService(), handler,
+				new AdmissionControl(trackingRegistry, 0, 0, 0, 0, 1), 10).resume();
+
+		await().atMost(Duration.ofSeconds(5)).until(() -> trackingRegistry.find("t1") == null);
+		List<String> sent = sessionRegistry.get("s1").attach(0).take(Duration.ofMillis(100))
+				.map(event -> event.data().getResponse().getStatus())
+				.collectList().block();
+		assertEquals(List.of("TIMEOUT"), sent);
+	}
+
+	@Test
+	void resumeDelaysNeverPrecedeTheDueTime() {
+		Instant now = Instant.now();
+		List<Duration> delays = TrackingResumer.resumeDelays(
+				List.of(now.minusSeconds(5), now.plusMillis(50), now.plusSeconds(10)), now, Duration.ofMillis(100));
+
+		assertEquals(List.of(Duration.ZERO, Duration.ofMillis(100), Duration.ofSeconds(10)), delays);
+	}
+
+	private TrackingStatusHandler handler(TrackingRegistry trackingRegistry, SessionEventBus eventBus) {
+		SseFrameEncoder encoder = new SseFrameEncoder(new ObjectMapper());
+		return new TrackingStatusHandler(eventBus, trackingRegistry, new AdmissionControl(trackingRegistry, 0, 0, 0, 0, 1),
+				encoder, WebClient.create(), new FixedPollingIntervalPolicy(List.of(Duration.ofSeconds(1))),
+				new SimpleMeterRegistry(), new ChangeDetectionCounters(), pollScheduler);
+	}
+
+	private static TrackingState state(String trackingId, String sessionIds, int attemptIndex, Instant nextDueAt,
+									   TrackingMode mode) {
+		TrackingState state = new TrackingState();
+		state.setTrackingId(trackingId);
+		state.setSessionIds(sessionIds);
+		state.setAttemptIndex(attemptIndex);
+		state.setNextDueAt(nextDueAt);
+		state.setMode(mode);
+		state.setAcknowledgedAt(Instant.now().minus(Duration.ofMinutes(5)));
+		state.setLastStatus("IN_PROGRESS");
+		return state;
+	}
+
+	private static final class RecordingProcessService implements ExternalProcessService {
+
+		private final Map<String, Duration> delays = new ConcurrentHashMap<>();
+		private final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+
+		@Override
+		public void startExternalProcess(String sessionId, InquiryApiRequest input) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void resumePolling(TrackedPoll tracked, int attemptIndex, Duration delay) {
+			delays.put(tracked.getTrackingId(), delay);
+			attempts.put(tracked.getTrackingId(), attemptIndex);
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package com.realtime.events.realtimeEvents.polling;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptivePollingIntervalPolicyTest {
+
+	private final Random random = new Random(42);
+	private final AdaptivePollingIntervalPolicy policy = new AdaptivePollingIntervalPolicy(Duration.ofMillis(500),
+			Duration.ofSeconds(10), Duration.ofSeconds(120), 20, () -> random);
+
+	@Test
+	void backsOffWithJitterWithinBaseAndCap() {
+		Duration previous = null;
+		for (int attempt = 0; attempt < 50; attempt++) {
+			Duration delay = policy.nextDelay(new PollContext(attempt, Duration.ofSeconds(attempt), previous, null));
+			long upper = previous == null ? 1_500 : Math.max(500, previous.toMillis() * 3);
+			assertTrue(delay.toMillis() >= 500 && delay.toMillis() <= Math.min(10_000, upper), "delay " + delay);
+			previous = delay;
+		}
+	}
+
+	@Test
+	void spreadsTrackingsStartedTogether() {
+		long distinct = IntStream.range(0, 100)
+				.mapToObj(i -> policy.nextDelay(new PollContext(1, Duration.ofSeconds(1), Duration.ofSeconds(2), null)))
+				.distinct()
+				.count();
+		assertTrue(distinct > 50, "only " + distinct + " distinct delays");
+	}
+
+	@Test
+	void learnsTheCompletionWindowAndWaitsForIt() {
+		// 32 completions spread over 20s..27.75s; the window is refreshed on the 32nd
+		for (int i = 0; i < 32; i++) {
+			policy.recordTerminal(Duration.ofMillis(20_000 + i * 250L));
+		}
+		assertEquals(20_750, policy.getWindowStartMillis());
+		assertEquals(27_000, policy.getWindowEndMillis());
+
+		Duration beforeWindow = policy.nextDelay(new PollContext(0, Duration.ZERO, null, null));
+		assertEquals(10_000, beforeWindow.toMillis(), "capped wait toward the window");
+
+		Duration insideWindow = policy.nextDelay(new PollContext(3, Duration.ofSeconds(24), Duration.ofSeconds(10), null));
+		assertTrue(insideWindow.toMillis() <= 1_000, "dense polling inside the window, got " + insideWindow);
+	}
+
+	@Test
+	void concurrentTerminalsStillRefreshTheWindow() {
+		// Every caller must see its own count, or the 20th sample can go unnoticed
+		IntStream.range(0, 24).parallel().forEach(i -> policy.recordTerminal(Duration.ofSeconds(20)));
+
+		assertTrue(policy.getWindowStartMillis() >= 0, "window never refreshed");
+	}
+
+	@Test
+	void honorsRetryAfterAndGivesUpAfterMaxElapsed() {
+		Duration delay = policy.nextDelay(new PollContext(0, Duration.ZERO, null, Duration.ofSeconds(30)));
+		assertEquals(Duration.ofSeconds(30), delay);
+
+		assertNull(policy.nextDelay(new PollContext(9, Duration.ofSeconds(120), Duration.ofSeconds(10), null)));
+	}
+
+	@Test
+	void fixedPolicyWalksTheListThenTimesOut() {
+		FixedPollingIntervalPolicy fixed = new FixedPollingIntervalPolicy(List.of(Duration.ofSeconds(1), Duration.ofSeconds(2)));
+
+		assertEquals(Duration.ofSeconds(1), fixed.nextDelay(new PollContext(0, Duration.ZERO, null, null)));
+		assertEquals(Duration.ofSeconds(5), fixed.nextDelay(new PollContext(1, Duration.ZERO, null, Duration.ofSeconds(5))));
+		assertNull(fixed.nextDelay(new PollContext(2, Duration.ZERO, null, null)));
+	}
+}
@@ -0,0 +1,57 @@
+package com.realtime.events.realtimeEvents.scheduling;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PollSchedulerTest {
+
+	private final PollScheduler scheduler = new PollScheduler(Duration.ofMillis(10), 64);
+
+	@AfterEach
+	void tearDown() {
+		scheduler.stop();
+	}
+
+	@Test
+	void firesScheduledTasksAndCountsThem() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(100);
+		for (int i = 0; i < 100; i++) {
+			scheduler.schedule(latch::countDown, Duration.ofMillis(20 + i));
+		}
+
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		assertEquals(100, scheduler.getFiredCount());
+		assertEquals(0, scheduler.getPendingCount());
+	}
+
+	@Test
+	void disposedTasksNeverFire() throws InterruptedException {
+		AtomicInteger runs = new AtomicInteger();
+		Disposable handle = scheduler.schedule(runs::incrementAndGet, Duration.ofMillis(50));
+		handle.dispose();
+
+		Thread.sleep(200);
+		assertTrue(handle.isDisposed());
+		assertEquals(0, runs.get());
+		assertEquals(0, scheduler.getFiredCount());
+	}
+
+	@Test
+	void failingTaskDoesNotStopTheWheel() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(1);
+		scheduler.schedule(() -> {
+			throw new IllegalStateException("boom");
+		}, Duration.ofMillis(10));
+		scheduler.schedule(latch::countDown, Duration.ofMillis(30));
+
+		assertTrue(latch.await(2, TimeUnit.SECONDS));
+	}
+}
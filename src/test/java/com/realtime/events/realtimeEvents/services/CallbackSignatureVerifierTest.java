@@ -0,0 +1,42 @@
+package com.realtime.events.realtimeEvents.services;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CallbackSignatureVerifierTest {
+
+	private final byte[] body = "{\"status\":\"COMPLETED\"}".getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	void acceptsOnlyTheMatchingSignature() throws Exception {
+		CallbackSignatureVerifier verifier = new CallbackSignatureVerifier("top-secret");
+		String signature = sign("top-secret", body);
+
+		assertTrue(verifier.verify(body, signature));
+		assertTrue(verifier.verify(body, "sha256=" + signature));
+		assertFalse(verifier.verify(body, sign("other-secret", body)));
+		assertFalse(verifier.verify("{\"status\":\"FAILED\"}".getBytes(StandardCharsets.UTF_8), signature));
+		assertFalse(verifier.verify(body, "not-hex"));
+		assertFalse(verifier.verify(body, null));
+	}
+
+	@Test
+	void skipsVerificationWithoutSecret() {
+		CallbackSignatureVerifier verifier = new CallbackSignatureVerifier("");
+
+		assertFalse(verifier.isEnabled());
+		assertTrue(verifier.verify(body, null));
+	}
+
+	private static String sign(String secret, byte[] payload) throws Exception {
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+		return HexFormat.of().formatHex(mac.doFinal(payload));
+	}
+}
@@ -0,0 +1,88 @@
+package com.realtime.events.realtimeEvents.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.admission.AdmissionControl;
+import com.realtime.events.realtimeEvents.cluster.LocalSessionEventBus;
+import com.realtime.events.realtimeEvents.cluster.SessionEventBus;
+import com.realtime.events.realtimeEvents.polling.FixedPollingIntervalPolicy;
+import com.realtime.events.realtimeEvents.scheduling.PollScheduler;
+import com.realtime.events.realtimeEvents.sessions.OverflowPolicy;
+import com.realtime.events.realtimeEvents.sessions.SseFrameEncoder;
+import com.realtime.events.realtimeEvents.sessions.SseSessionFactory;
+import com.realtime.events.realtimeEvents.sessions.SseSessionRegistry;
+import com.realtime.events.realtimeEvents.status.StatusClassification;
+import com.realtime.events.realtimeEvents.subscriptions.SubscriptionIndex;
+import com.realtime.events.realtimeEvents.tracking.TrackedPoll;
+import com.realtime.events.realtimeEvents.tracking.TrackingRegistry;
+import com.realtime.events.realtimeEvents.upstream.CircuitBreaker;
+import com.realtime.events.realtimeEvents.upstream.ResilientStatusClient;
+import com.realtime.events.realtimeEvents.upstream.RetryBudget;
+import com.realtime.events.realtimeEvents.upstream.StatusPollResult;
+import com.realtime.events.realtimeEvents.upstream.UpstreamGuard;
+import com.realtime.events.realtimeEvents.upstream.UpstreamStatusClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RealtimeEventsServiceV1Test {
+
+	private final SseSessionRegistry sessionRegistry =
+			new SseSessionRegistry(new SseSessionFactory(16, 60, 32, OverflowPolicy.CONFLATE), 15, 45, 120);
+	private final SessionEventBus eventBus = new LocalSessionEventBus(sessionRegistry);
+	private final SseFrameEncoder encoder = new SseFrameEncoder(new ObjectMapper());
+	private final TrackingRegistry trackingRegistry = new TrackingRegistry(eventBus, new SubscriptionIndex(eventBus), encoder);
+	private final PollScheduler pollScheduler = new PollScheduler(Duration.ofMillis(10), 64);
+
+	@Test
+	void trackingsSurviveABreakerOpenAndHalfOpenCycle() {
+		CircuitBreaker breaker = new CircuitBreaker(4, 4, 50, Duration.ofMillis(200), Duration.ofMillis(300),
+				System::nanoTime);
+		for (int i = 0; i < 4; i++) {
+			breaker.onFailure(CircuitBreaker.Permission.CALL);
+		}
+		// The first probe fails slowly, reopening the breaker; upstream is back after that
+		AtomicInteger calls = new AtomicInteger();
+		UpstreamStatusClient upstream = (trackingId, attemptIndex, etag) -> calls.incrementAndGet() == 1
+				? Mono.delay(Duration.ofMillis(100)).then(Mono.error(WebClientResponseException.create(
+						HttpStatus.BAD_GATEWAY.value(), "Bad Gateway", HttpHeaders.EMPTY, null, null)))
+				: Mono.just(new StatusPollResult(new StatusClassification(StatusClassification.COMPLETED, "DONE"), null));
+		// Two attempts, far fewer than the polls the outage defers
+		TrackingStatusHandler handler = new TrackingStatusHandler(eventBus, trackingRegistry,
+				new AdmissionControl(trackingRegistry, 0, 0, 0, 0, 5), encoder, WebClient.create(),
+				new FixedPollingIntervalPolicy(List.of(Duration.ofMillis(10), Duration.ofMillis(10))),
+				new SimpleMeterRegistry(), new ChangeDetectionCounters(), pollScheduler);
+		RealtimeEventsServiceV1 service = new RealtimeEventsServiceV1(pollScheduler,
+				new ResilientStatusClient(upstream, new UpstreamGuard(breaker, new RetryBudget(0.1, 10), Duration.ofMillis(10))),
+				handler);
+
+		for (String trackingId : List.of("t1", "t2")) {
+			sessionRegistry.connect("s-" + trackingId);
+			TrackedPoll tracked = trackingRegistry.subscribe(trackingId, "s-" + trackingId);
+			assertTrue(tracked.tryStart());
+			tracked.markAcknowledged();
+			service.resumePolling(tracked, 0, Duration.ofMillis(10));
+		}
+
+		await().atMost(Duration.ofSeconds(5))
+				.until(() -> trackingRegistry.find("t1") == null && trackingRegistry.find("t2") == null);
+		for (String sessionId : List.of("s-t1", "s-t2")) {
+			List<String> statuses = sessionRegistry.get(sessionId).attach(0).take(Duration.ofMillis(100))
+					.map(event -> event.data().getResponse().getStatus())
+					.collectList().block();
+			assertEquals(List.of("COMPLETED"), statuses);
+		}
+		assertTrue(breaker.getRejectedCount() > 2, "polls were refused while open and during the probe");
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+	}
+}
@@ -0,0 +1,189 @@
+package com.realtime.events.realtimeEvents.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.admission.AdmissionControl;
+import com.realtime.events.realtimeEvents.cluster.LocalSessionEventBus;
+import com.realtime.events.realtimeEvents.cluster.SessionEventBus;
+import com.realtime.events.realtimeEvents.dto.InquiryApiRequest;
+import com.realtime.events.realtimeEvents.polling.FixedPollingIntervalPolicy;
+import com.realtime.events.realtimeEvents.scheduling.PollScheduler;
+import com.realtime.events.realtimeEvents.sessions.OverflowPolicy;
+import com.realtime.events.realtimeEvents.sessions.SseFrame;
+import com.realtime.events.realtimeEvents.sessions.SseFrameEncoder;
+import com.realtime.events.realtimeEvents.sessions.SseSessionFactory;
+import com.realtime.events.realtimeEvents.sessions.SseSessionRegistry;
+import com.realtime.events.realtimeEvents.status.StatusClassification;
+import com.realtime.events.realtimeEvents.subscriptions.SubscriptionIndex;
+import com.realtime.events.realtimeEvents.tracking.TrackedPoll;
+import com.realtime.events.realtimeEvents.tracking.TrackingMode;
+import com.realtime.events.realtimeEvents.tracking.TrackingRegistry;
+import com.realtime.events.realtimeEvents.upstream.StatusPollResult;
+import com.realtime.events.realtimeEvents.upstream.StubUpstream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackingStatusHandlerTest {
+
+	private final SseSessionRegistry sessionRegistry =
+			new SseSessionRegistry(new SseSessionFactory(16, 60, 32, OverflowPolicy.CONFLATE), 15, 45, 120);
+	private final SessionEventBus eventBus = new LocalSessionEventBus(sessionRegistry);
+	private final SseFrameEncoder encoder = new SseFrameEncoder(new ObjectMapper());
+	private final TrackingRegistry trackingRegistry = new TrackingRegistry(eventBus, new SubscriptionIndex(eventBus), encoder);
+	private final ChangeDetectionCounters counters = new ChangeDetectionCounters();
+	private final PollScheduler pollScheduler = new PollScheduler(Duration.ofMillis(10), 64);
+	private final TrackingStatusHandler handler = new TrackingStatusHandler(eventBus, trackingRegistry,
+			new AdmissionControl(trackingRegistry, 0, 0, 0, 0, 5), encoder, WebClient.create(),
+			new FixedPollingIntervalPolicy(List.of(Duration.ofSeconds(1))), new SimpleMeterRegistry(), counters, pollScheduler);
+	private final StubUpstream upstream = new StubUpstream();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(handler, "startApiUri", upstream.baseUrl() + "/start");
+		ReflectionTestUtils.setField(handler, "defaultMode", TrackingMode.POLLING);
+		ReflectionTestUtils.setField(handler, "fallbackIntervalSeconds", 30L);
+		ReflectionTestUtils.setField(handler, "fallbackMaxAttempts", 2);
+		ReflectionTestUtils.setField(handler, "callbackTimeoutSeconds", 1L);
+	}
+
+	@AfterEach
+	void tearDown() {
+		pollScheduler.stop();
+		upstream.close();
+	}
+
+	@Test
+	void repeatedInProgressStatusesAreSentOnce() {
+		sessionRegistry.connect("s1");
+		sessionRegistry.connect("s2");
+		trackingRegistry.subscribe("t1", "s1");
+		TrackedPoll tracked = trackingRegistry.subscribe("t1", "s2");
+
+		handler.handlePollResult(tracked, polled("RUNNING, progress=10", "\"a\""));
+		handler.handlePollResult(tracked, polled("RUNNING, progress=10", "\"b\""));
+		handler.handlePollResult(tracked, StatusPollResult.notModified("\"b\"", null));
+		handler.handlePollResult(tracked, polled("RUNNING, progress=20", "\"c\""));
+		handler.handleStatus(tracked, new StatusClassification(StatusClassification.COMPLETED, "DONE"));
+
+		List<ServerSentEvent<SseFrame>> events = events("s1");
+		assertEquals(List.of("RUNNING, progress=10", "RUNNING, progress=20", "Process completed"),
+				events.stream().map(event -> event.data().getResponse().getMessage()).toList());
+		assertEquals(1, counters.getUnchangedCount());
+		assertEquals(1, counters.getNotModifiedCount());
+		assertEquals(64, counters.getUpstreamBytesSaved());
+		assertEquals(2L * 2 * events.get(0).data().getSize(), counters.getDownstreamBytesSaved(),
+				"two skipped events for two sessions");
+	}
+
+	@Test
+	void deferredPollsUseUpAttemptsAndWaitOutTheirDelay() {
+		sessionRegistry.connect("s1");
+		TrackedPoll tracked = trackingRegistry.subscribe("t1", "s1");
+		TrackingStatusHandler twoAttempts = new TrackingStatusHandler(eventBus, trackingRegistry,
+				new AdmissionControl(trackingRegistry, 0, 0, 0, 0, 5), encoder, WebClient.create(),
+				new FixedPollingIntervalPolicy(List.of(Duration.ofSeconds(1), Duration.ofSeconds(1))),
+				new SimpleMeterRegistry(), counters, pollScheduler);
+
+		assertFalse(twoAttempts.handlePollResult(tracked, StatusPollResult.deferred(Duration.ofSeconds(10))));
+		assertEquals(Duration.ofSeconds(10), twoAttempts.nextDelay(tracked, 1), "waits for the breaker");
+		assertFalse(twoAttempts.handlePollResult(tracked, StatusPollResult.deferred(Duration.ofMillis(10))));
+		assertNull(twoAttempts.nextDelay(tracked, 2), "an outage still runs out of attempts");
+		assertTrue(events("s1").isEmpty());
+	}
+
+	@Test
+	void startsForUnknownSessionsAreNotChargedToTheUser() {
+		AdmissionControl admissionControl = new AdmissionControl(trackingRegistry, 0, 0, 0.001, 1, 5);
+		TrackingStatusHandler limited = new TrackingStatusHandler(eventBus, trackingRegistry, admissionControl, encoder,
+				WebClient.create(), new FixedPollingIntervalPolicy(List.of(Duration.ofSeconds(1))), new SimpleMeterRegistry(),
+				counters, pollScheduler);
+
+		for (int i = 0; i < 3; i++) {
+			assertThrows(IllegalArgumentException.class,
+					() -> limited.start("unknown", new InquiryApiRequest("t1", "u1"), tracked -> { }));
+		}
+
+		assertDoesNotThrow(() -> admissionControl.admitStart("u1"), "the single token is still there");
+	}
+
+	@Test
+	void eachModeStartsTheWayItAsks() {
+		List<String> polling = new CopyOnWriteArrayList<>();
+		for (TrackingMode mode : TrackingMode.values()) {
+			sessionRegistry.connect("s-" + mode);
+			handler.start("s-" + mode, new InquiryApiRequest("t-" + mode, "u1", mode), tracked -> polling.add(tracked.getTrackingId()));
+		}
+		sessionRegistry.connect("s-default");
+		handler.start("s-default", new InquiryApiRequest("t-default", "u1"), tracked -> polling.add(tracked.getTrackingId()));
+
+		await().atMost(Duration.ofSeconds(5)).until(() -> polling.size() == 3);
+		assertEquals(Set.of("t-POLLING", "t-CALLBACK_WITH_FALLBACK", "t-default"), Set.copyOf(polling));
+		assertEquals(TrackingMode.POLLING, trackingRegistry.find("t-default").getMode());
+		TrackedPoll fallback = trackingRegistry.find("t-CALLBACK_WITH_FALLBACK");
+		assertEquals(Duration.ofSeconds(30), handler.nextDelay(fallback, 1), "fallback polls run at the slow rate");
+		assertNull(handler.nextDelay(fallback, 2), "and give up after the configured attempts");
+	}
+
+	@Test
+	void aSessionJoiningARunningChainGetsItsCurrentStatus() {
+		sessionRegistry.connect("s1");
+		sessionRegistry.connect("s2");
+		TrackedPoll tracked = trackingRegistry.subscribe("t1", "s1");
+		assertTrue(tracked.tryStart());
+		handler.handleStatus(tracked, new StatusClassification(StatusClassification.IN_PROGRESS, "RUNNING, progress=10"));
+
+		handler.start("s2", new InquiryApiRequest("t1", "u1"), joined -> fail("joining does not start polling"));
+
+		assertEquals(List.of("Joined existing tracking", "RUNNING, progress=10"),
+				events("s2").stream().map(event -> event.data().getResponse().getMessage()).toList());
+	}
+
+	@Test
+	void aPureCallbackChainTimesOutWhenNoCallbackArrives() {
+		List<String> ended = new CopyOnWriteArrayList<>();
+		trackingRegistry.onEnd(tracked -> ended.add(tracked.getTrackingId()));
+		sessionRegistry.connect("s1");
+
+		handler.start("s1", new InquiryApiRequest("t1", "u1", TrackingMode.CALLBACK), tracked -> fail("callback chains do not poll"));
+
+		await().atMost(Duration.ofSeconds(5)).until(() -> ended.contains("t1"));
+		assertNull(trackingRegistry.find("t1"));
+		assertEquals(List.of("ACK", "TIMEOUT"), statuses("s1"));
+	}
+
+	@Test
+	void aTerminalCallbackCancelsTheDeadline() throws InterruptedException {
+		sessionRegistry.connect("s1");
+		handler.start("s1", new InquiryApiRequest("t1", "u1", TrackingMode.CALLBACK), tracked -> fail("callback chains do not poll"));
+		await().atMost(Duration.ofSeconds(5)).until(() -> trackingRegistry.find("t1").getAcknowledgedAt() != null);
+
+		handler.handleStatus(trackingRegistry.find("t1"), new StatusClassification(StatusClassification.COMPLETED, "DONE"));
+		Thread.sleep(1_200);
+
+		assertEquals(List.of("ACK", "COMPLETED"), statuses("s1"));
+	}
+
+	private static StatusPollResult polled(String detail, String etag) {
+		return new StatusPollResult(new StatusClassification(StatusClassification.IN_PROGRESS, detail), null, etag, 64);
+	}
+
+	private List<String> statuses(String sessionId) {
+		return events(sessionId).stream().map(event -> event.data().getResponse().getStatus()).toList();
+	}
+
+	private List<ServerSentEvent<SseFrame>> events(String sessionId) {
+		return sessionRegistry.get(sessionId).attach(0).take(Duration.ofMillis(100)).collectList().block();
+	}
+}
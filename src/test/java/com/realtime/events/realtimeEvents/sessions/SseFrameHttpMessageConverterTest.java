@@ -0,0 +1,40 @@
+package com.realtime.events.realtimeEvents.sessions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseFrameHttpMessageConverterTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final SseFrameHttpMessageConverter converter = new SseFrameHttpMessageConverter();
+
+	@Test
+	void writesTheEncodedJsonAsTheDataOfAnMvcEvent() throws Exception {
+		InquiryApiResponse response = new InquiryApiResponse("COMPLETED", "Process completed", "t1");
+		SseFrame frame = new SseFrameEncoder(objectMapper).encode(response);
+
+		// The same pieces Spring MVC writes for a ServerSentEvent: text parts plus the data object
+		Set<SseEmitter.DataWithMediaType> parts = SseEmitter.event().id("7").data(frame).build();
+		MockHttpOutputMessage output = new MockHttpOutputMessage();
+		for (SseEmitter.DataWithMediaType part : parts) {
+			if (part.getData() instanceof SseFrame data) {
+				assertTrue(converter.canWrite(SseFrame.class, part.getMediaType()));
+				converter.write(data, part.getMediaType(), output);
+			} else {
+				output.getBody().write(part.getData().toString().getBytes());
+			}
+		}
+
+		assertEquals("id:7\ndata:" + objectMapper.writeValueAsString(response) + "\n\n", output.getBodyAsString());
+		assertFalse(converter.canRead(SseFrame.class, MediaType.APPLICATION_JSON));
+		assertFalse(converter.canWrite(InquiryApiResponse.class, null));
+	}
+}
@@ -0,0 +1,65 @@
+package com.realtime.events.realtimeEvents.sessions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseSessionRegistryTest {
+
+	private static final SseFrameEncoder ENCODER = new SseFrameEncoder(new ObjectMapper());
+
+	// One second is the smallest idle TTL the registry takes
+	private final SseSessionRegistry registry =
+			new SseSessionRegistry(new SseSessionFactory(16, 60, 32, OverflowPolicy.CONFLATE), 15, 45, 1);
+
+	@Test
+	void sweepDoesNotEvictASessionHandedToAReconnectingClient() throws InterruptedException {
+		List<String> removed = new CopyOnWriteArrayList<>();
+		registry.onRemoval(removed::add);
+		registry.connect("s1");
+		registry.connect("s2");
+		Thread.sleep(1_100);
+
+		// The sweep runs after the lookup but before the client subscribes
+		SseSession reconnected = registry.connect("s1");
+		registry.sweep();
+
+		assertSame(reconnected, registry.get("s1"));
+		assertNull(registry.get("s2"));
+		assertEquals(List.of("s2"), removed);
+		StepVerifier.create(reconnected.attach(-1))
+				.then(() -> assertEquals(Sinks.EmitResult.OK, registry.get("s1").emit(frame("t1"))))
+				.assertNext(event -> assertEquals("t1", event.data().getResponse().getTrackingId()))
+				.thenCancel()
+				.verify(Duration.ofSeconds(1));
+	}
+
+	@Test
+	void aRestoredSessionIsAnnouncedOnlyOnceAClientConnectsToIt() {
+		List<String> created = new CopyOnWriteArrayList<>();
+		registry.onCreation(created::add);
+
+		SseSession restored = registry.restore("s1");
+		assertSame(restored, registry.restore("s1"));
+		assertEquals(List.of(), created);
+		assertEquals(Set.of(), registry.getSessionIds());
+
+		assertSame(restored, registry.connect("s1"));
+		registry.connect("s1");
+		assertEquals(List.of("s1"), created);
+		assertEquals(Set.of("s1"), registry.getSessionIds());
+	}
+
+	private static SseFrame frame(String trackingId) {
+		return ENCODER.encode(new InquiryApiResponse("COMPLETED", "done", trackingId));
+	}
+}
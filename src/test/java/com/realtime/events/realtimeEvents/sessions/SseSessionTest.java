@@ -0,0 +1,165 @@
+package com.realtime.events.realtimeEvents.sessions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseSessionTest {
+
+	private static final SseFrameEncoder ENCODER = new SseFrameEncoder(new ObjectMapper());
+	private final SessionEmitCounters counters = new SessionEmitCounters();
+
+	@Test
+	void reconnectWithLastEventIdReplaysOnlyMissedEvents() {
+		SseSession session = new SseSession("s1", 16, 60_000, 32, OverflowPolicy.CONFLATE, counters);
+		for (int i = 1; i <= 5; i++) {
+			session.emit(frame("IN_PROGRESS", "step " + i, "t1"));
+		}
+
+		StepVerifier.create(session.attach(3))
+				.assertNext(event -> assertEquals("4", event.id()))
+				.assertNext(event -> assertEquals("5", event.id()))
+				.then(() -> session.emit(frame("COMPLETED", "done", "t1")))
+				.assertNext(event -> {
+					assertEquals("6", event.id());
+					assertEquals("COMPLETED", event.data().getResponse().getStatus());
+				})
+				.thenCancel()
+				.verify();
+		assertFalse(session.isConnected());
+	}
+
+	@Test
+	void replayIsBoundedByCapacityAndTtl() {
+		SseSession bounded = new SseSession("s1", 2, 60_000, 32, OverflowPolicy.CONFLATE, counters);
+		for (int i = 1; i <= 5; i++) {
+			bounded.emit(frame("IN_PROGRESS", "step " + i, "t1"));
+		}
+		StepVerifier.create(bounded.attach(0))
+				.assertNext(event -> assertEquals("4", event.id()))
+				.assertNext(event -> assertEquals("5", event.id()))
+				.thenCancel()
+				.verify();
+
+		SseSession expired = new SseSession("s2", 16, -1, 32, OverflowPolicy.CONFLATE, counters);
+		expired.emit(frame("IN_PROGRESS", "stale", "t1"));
+		StepVerifier.create(expired.attach(0))
+				.expectSubscription()
+				.expectNoEvent(Duration.ofMillis(50))
+				.thenCancel()
+				.verify();
+	}
+
+	@Test
+	void lastEventIdFromBeforeARestartReplaysEverythingRetained() {
+		SseSession recreated = new SseSession("s1", 16, 60_000, 32, OverflowPolicy.CONFLATE, counters);
+		recreated.emit(frame("COMPLETED", "done", "t1"));
+
+		StepVerifier.create(recreated.attach(41))
+				.assertNext(event -> assertEquals("COMPLETED", event.data().getResponse().getStatus()))
+				.thenCancel()
+				.verify();
+	}
+
+	@Test
+	void connectWithoutLastEventIdOnlyReceivesLiveEvents() {
+		SseSession session = new SseSession("s1", 16, 60_000, 32, OverflowPolicy.CONFLATE, counters);
+		session.emit(frame("ACK", "Process started", "t1"));
+
+		StepVerifier.create(session.attach(-1))
+				.then(() -> session.emit(frame("IN_PROGRESS", "working", "t1")))
+				.assertNext(event -> assertEquals("2", event.id()))
+				.thenCancel()
+				.verify();
+	}
+
+	@Test
+	void conflatesPendingStatusPerTrackingIdForSlowClients() {
+		SseSession session = new SseSession("s1", 16, 60_000, 4, OverflowPolicy.CONFLATE, counters);
+
+		StepVerifier.create(session.attach(-1), 0)
+				.then(() -> {
+					for (int i = 1; i <= 10; i++) {
+						session.emit(frame("IN_PROGRESS", "step " + i, "t1"));
+					}
+					session.emit(frame("IN_PROGRESS", "other", "t2"));
+					assertEquals(Sinks.EmitResult.OK, session.emit(frame("COMPLETED", "done", "t1")));
+				})
+				.thenRequest(10)
+				.assertNext(event -> assertEquals("other", event.data().getResponse().getMessage()))
+				.assertNext(event -> assertEquals("COMPLETED", event.data().getResponse().getStatus()))
+				.thenCancel()
+				.verify();
+		assertEquals(10, counters.getConflatedCount());
+	}
+
+	@Test
+	void dropOldestNeverDropsTerminalStatuses() {
+		SseSession session = new SseSession("s1", 16, 60_000, 2, OverflowPolicy.DROP_OLDEST, counters);
+
+		StepVerifier.create(session.attach(-1), 0)
+				.then(() -> {
+					session.emit(frame("COMPLETED", "done", "t1"));
+					session.emit(frame("IN_PROGRESS", "a", "t2"));
+					session.emit(frame("IN_PROGRESS", "b", "t2"));
+					session.emit(frame("FAILED", "failed", "t2"));
+				})
+				.thenRequest(10)
+				.assertNext(event -> assertEquals("COMPLETED", event.data().getResponse().getStatus()))
+				.assertNext(event -> assertEquals("FAILED", event.data().getResponse().getStatus()))
+				.thenCancel()
+				.verify();
+		assertEquals(2, counters.getDroppedCount());
+	}
+
+	@Test
+	void disconnectPolicyClosesTheConnectionOnOverflow() {
+		SseSession session = new SseSession("s1", 16, 60_000, 1, OverflowPolicy.DISCONNECT, counters);
+
+		StepVerifier.create(session.attach(-1), 0)
+				.then(() -> {
+					session.emit(frame("IN_PROGRESS", "a", "t1"));
+					assertEquals(Sinks.EmitResult.FAIL_OVERFLOW, session.emit(frame("IN_PROGRESS", "b", "t1")));
+				})
+				.verifyComplete();
+		assertFalse(session.isConnected());
+		assertEquals(Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER, session.emit(frame("IN_PROGRESS", "c", "t1")));
+		assertEquals(1, counters.getEmitCount(Sinks.EmitResult.OK));
+		assertEquals(1, counters.getEmitCount(Sinks.EmitResult.FAIL_OVERFLOW));
+		assertEquals(1, counters.getEmitCount(Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER));
+		assertEquals(1, counters.getDroppedCount());
+	}
+
+	@Test
+	void heartbeatsIdleConnectionsAndFlagsStalledOnes() {
+		SseSession session = new SseSession("s1", 16, 60_000, 32, OverflowPolicy.CONFLATE, counters);
+
+		StepVerifier.create(session.attach(-1), 1)
+				.then(() -> assertTrue(session.heartbeatIfIdle(0)))
+				.assertNext(event -> {
+					assertEquals("heartbeat", event.comment());
+					assertNull(event.data());
+				})
+				.then(() -> {
+					// No demand left: the next heartbeat waits in the outbox and the connection looks stalled
+					assertTrue(session.heartbeatIfIdle(0));
+					assertFalse(session.heartbeatIfIdle(0));
+					assertTrue(session.isStalledLongerThan(0));
+				})
+				.thenRequest(1)
+				.assertNext(event -> assertEquals("heartbeat", event.comment()))
+				.then(() -> assertFalse(session.isStalledLongerThan(0)))
+				.thenCancel()
+				.verify();
+	}
+
+	private static SseFrame frame(String status, String message, String trackingId) {
+		return ENCODER.encode(new InquiryApiResponse(status, message, trackingId));
+	}
+}
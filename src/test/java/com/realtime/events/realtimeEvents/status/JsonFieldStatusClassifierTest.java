@@ -0,0 +1,103 @@
+package com.realtime.events.realtimeEvents.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonFieldStatusClassifierTest {
+
+	private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(Unpooled.buffer().alloc());
+
+	private JsonFieldStatusClassifier classifier(String fieldPath) {
+		return new JsonFieldStatusClassifier(new ObjectMapper().getFactory(), fieldPath,
+				Map.of("COMPLETED", "COMPLETED", "DONE", "COMPLETED", "FAILED", "FAILED", "REJECTED", "REJECTED"));
+	}
+
+	@Test
+	void readsOnlyTheConfiguredFieldAcrossChunkBoundaries() {
+		String body = "{\"message\":\"will be COMPLETED soon\",\"items\":[{\"status\":\"FAILED\"}],"
+				+ "\"result\":{\"note\":{\"status\":\"REJECTED\"},\"status\":\"done\"}}";
+		List<ByteBuf> chunks = new ArrayList<>();
+
+		StatusClassification classification = classifier("result.status")
+				.classify(chunked(body, 7, chunks))
+				.block();
+
+		assertNotNull(classification);
+		assertEquals("COMPLETED", classification.status());
+		assertTrue(chunks.stream().allMatch(chunk -> chunk.refCnt() == 0), "every buffer is released");
+	}
+
+	@Test
+	void unmappedOrMissingValuesAreInProgress() {
+		JsonFieldStatusClassifier classifier = classifier("status");
+
+		StatusClassification pending = classifier.classify(bytes("{\"status\":\"QUEUED\"}"));
+		assertEquals("IN_PROGRESS", pending.status());
+		assertEquals("QUEUED", pending.detail());
+
+		StatusClassification missing = classifier.classify(bytes("{\"title\":\"COMPLETED\",\"completed\":false}"));
+		assertEquals("IN_PROGRESS", missing.status());
+		assertFalse(missing.isTerminal());
+	}
+
+	@Test
+	void matchesValuesCaseInsensitively() {
+		assertEquals("FAILED", classifier("status").classify(bytes("{\"status\":\"failed\"}")).status());
+	}
+
+	@Test
+	void ignoresObjectValuesAtTheFieldPath() {
+		assertEquals("IN_PROGRESS", classifier("status").classify(bytes("{\"status\":{\"status\":\"DONE\"}}")).status());
+	}
+
+	@Test
+	void trackedFieldsDecideTheFingerprintAndDetail() {
+		JsonFieldStatusClassifier classifier = new JsonFieldStatusClassifier(new ObjectMapper().getFactory(), "status",
+				Map.of("DONE", "COMPLETED"), List.of("progress.percent"));
+
+		StatusClassification first = classifier.classify(bytes(
+				"{\"status\":\"RUNNING\",\"updatedAt\":1,\"progress\":{\"percent\":10},\"log\":\"" + "x".repeat(5000) + "\"}"));
+		StatusClassification noise = classifier.classify(bytes(
+				"{\"progress\":{\"percent\":10},\"updatedAt\":2,\"status\":\"RUNNING\"}"));
+		StatusClassification progressed = classifier.classify(bytes(
+				"{\"status\":\"RUNNING\",\"progress\":{\"percent\":20}}"));
+
+		assertEquals("RUNNING, progress.percent=10", first.detail());
+		assertTrue(noise.isSameAs(first.status(), first.fingerprint()), "untracked fields do not count as a change");
+		assertFalse(progressed.isSameAs(first.status(), first.fingerprint()));
+	}
+
+	@Test
+	void detailIsBounded() {
+		StatusClassification classification = new ContainsStatusClassifier().classify(bytes("x".repeat(10_000)));
+
+		assertEquals(StatusClassification.MAX_DETAIL_LENGTH, classification.detail().length());
+	}
+
+	private Flux<DataBuffer> chunked(String body, int size, List<ByteBuf> chunks) {
+		byte[] bytes = bytes(body);
+		List<DataBuffer> buffers = new ArrayList<>();
+		for (int offset = 0; offset < bytes.length; offset += size) {
+			ByteBuf chunk = Unpooled.copiedBuffer(bytes, offset, Math.min(size, bytes.length - offset));
+			chunks.add(chunk);
+			buffers.add(bufferFactory.wrap(chunk));
+		}
+		return Flux.fromIterable(buffers);
+	}
+
+	private static byte[] bytes(String body) {
+		return body.getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,78 @@
+package com.realtime.events.realtimeEvents.subscriptions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.cluster.LocalSessionEventBus;
+import com.realtime.events.realtimeEvents.cluster.SessionEventBus;
+import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
+import com.realtime.events.realtimeEvents.dto.SubscriptionRequest;
+import com.realtime.events.realtimeEvents.sessions.OverflowPolicy;
+import com.realtime.events.realtimeEvents.sessions.SseFrameEncoder;
+import com.realtime.events.realtimeEvents.sessions.SseSessionFactory;
+import com.realtime.events.realtimeEvents.sessions.SseSessionRegistry;
+import com.realtime.events.realtimeEvents.tracking.TrackedPoll;
+import com.realtime.events.realtimeEvents.tracking.TrackingRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubscriptionIndexTest {
+
+	private final SseSessionRegistry sessionRegistry =
+			new SseSessionRegistry(new SseSessionFactory(16, 60, 32, OverflowPolicy.CONFLATE), 15, 45, 120);
+	private final SessionEventBus eventBus = new LocalSessionEventBus(sessionRegistry);
+	private final SubscriptionIndex index = new SubscriptionIndex(eventBus);
+	private final TrackingRegistry trackings = new TrackingRegistry(eventBus, index, new SseFrameEncoder(new ObjectMapper()));
+	private TrackedPoll tracked;
+
+	@BeforeEach
+	void setUp() {
+		index.releaseSessionsOnRemoval();
+		sessionRegistry.connect("starter");
+		sessionRegistry.connect("dashboard");
+		tracked = trackings.subscribe("t1", "starter");
+		tracked.setUserId("u1");
+	}
+
+	@Test
+	void watchingByTrackingIdAndUserIdDeliversEachEventOnce() {
+		index.subscribe("dashboard", new SubscriptionRequest(Set.of("t1"), Set.of("u1"), Set.of()));
+		index.subscribe("starter", new SubscriptionRequest(Set.of("t1"), Set.of(), Set.of()));
+
+		trackings.publish(tracked, new InquiryApiResponse("IN_PROGRESS", "working", "t1"));
+
+		StepVerifier.create(sessionRegistry.get("dashboard").attach(0)).expectNextCount(1).thenCancel().verify();
+		StepVerifier.create(sessionRegistry.get("starter").attach(0)).expectNextCount(1).thenCancel().verify();
+		assertEquals(0, sessionRegistry.get("dashboard").getPendingCount());
+	}
+
+	@Test
+	void statusFilterNarrowsWhatTheStreamReceives() {
+		index.subscribe("dashboard", new SubscriptionRequest(Set.of(), Set.of("u1"), Set.of("completed")));
+
+		trackings.publish(tracked, new InquiryApiResponse("IN_PROGRESS", "working", "t1"));
+		trackings.publish(tracked, new InquiryApiResponse("COMPLETED", "Process completed", "t1"));
+
+		StepVerifier.create(sessionRegistry.get("dashboard").attach(0))
+				.expectNextMatches(event -> event.data().getResponse().getStatus().equals("COMPLETED"))
+				.thenCancel()
+				.verify();
+	}
+
+	@Test
+	void unsubscribeAndDisconnectStopDelivery() {
+		index.subscribe("dashboard", new SubscriptionRequest(Set.of("t1", "t2"), Set.of("u1"), Set.of()));
+		index.unsubscribe("dashboard", new SubscriptionRequest(Set.of("t1"), Set.of("u1"), Set.of()));
+		assertEquals(Set.of("t2"), index.getSubscriptions("dashboard").getTrackingIds());
+
+		trackings.publish(tracked, new InquiryApiResponse("IN_PROGRESS", "working", "t1"));
+		StepVerifier.create(sessionRegistry.get("dashboard").attach(0)).expectSubscription().expectNoEvent(Duration.ofMillis(50)).thenCancel().verify();
+
+		sessionRegistry.remove("dashboard");
+		assertEquals(new SubscriptionRequest(), index.getSubscriptions("dashboard"));
+	}
+}
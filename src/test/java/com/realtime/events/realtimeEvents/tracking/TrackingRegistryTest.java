@@ -0,0 +1,105 @@
+package com.realtime.events.realtimeEvents.tracking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.cluster.LocalSessionEventBus;
+import com.realtime.events.realtimeEvents.cluster.SessionEventBus;
+import com.realtime.events.realtimeEvents.dto.InquiryApiResponse;
+import com.realtime.events.realtimeEvents.sessions.OverflowPolicy;
+import com.realtime.events.realtimeEvents.sessions.SseFrame;
+import com.realtime.events.realtimeEvents.sessions.SseFrameEncoder;
+import com.realtime.events.realtimeEvents.sessions.SseSessionFactory;
+import com.realtime.events.realtimeEvents.sessions.SseSessionRegistry;
+import com.realtime.events.realtimeEvents.subscriptions.SubscriptionIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackingRegistryTest {
+
+	private final SseSessionRegistry sessionRegistry =
+			new SseSessionRegistry(new SseSessionFactory(16, 60, 32, OverflowPolicy.CONFLATE), 15, 45, 120);
+	private final SessionEventBus eventBus = new LocalSessionEventBus(sessionRegistry);
+	private final TrackingRegistry registry = 
+			new TrackingRegistry(eventBus, new SubscriptionIndex(eventBus), new SseFrameEncoder(new ObjectMapper()));
+
+	@BeforeEach
+	void setUp() {
+		registry.releaseSessionsOnRemoval();
+	}
+
+	@Test
+	void sessionsWatchingTheSameTrackingIdShareOnePoller() {
+		sessionRegistry.connect("s1");
+		sessionRegistry.connect("s2");
+
+		TrackedPoll poll = registry.subscribe("t1", "s1");
+		assertTrue(poll.tryStart());
+		TrackedPoll joined = registry.subscribe("t1", "s2");
+		assertSame(poll, joined);
+		assertFalse(joined.tryStart());
+
+		registry.publish(poll, new InquiryApiResponse("IN_PROGRESS", "working", "t1"));
+
+		SseFrame[] frames = new SseFrame[2];
+		StepVerifier.create(sessionRegistry.get("s1").attach(0))
+				.consumeNextWith(event -> frames[0] = event.data())
+				.thenCancel()
+				.verify();
+		StepVerifier.create(sessionRegistry.get("s2").attach(0))
+				.consumeNextWith(event -> frames[1] = event.data())
+				.thenCancel()
+				.verify();
+		// Encoded once, shared by every subscriber
+		assertSame(frames[0], frames[1]);
+		assertEquals(1, registry.getActiveCount());
+	}
+
+	@Test
+	void aSessionSubscribingWhileTheTerminalEventGoesOutGetsAFreshPoller() {
+		TrackingRegistry[] racing = new TrackingRegistry[1];
+		TrackedPoll[] late = new TrackedPoll[1];
+		// Delivering the terminal event to s1 is when s2 subscribes
+		SessionEventBus bus = new LocalSessionEventBus(sessionRegistry) {
+			@Override
+			public boolean publish(String sessionId, SseFrame frame) {
+				if (late[0] == null && frame.getResponse().getStatus().equals("COMPLETED")) {
+					late[0] = racing[0].subscribe("t1", "s2");
+				}
+				return super.publish(sessionId, frame);
+			}
+		};
+		racing[0] = new TrackingRegistry(bus, new SubscriptionIndex(bus), new SseFrameEncoder(new ObjectMapper()));
+		List<TrackedPoll> ended = new ArrayList<>();
+		racing[0].onEnd(ended::add);
+		TrackedPoll poll = racing[0].subscribe("t1", "s1");
+		racing[0].publish(poll, new InquiryApiResponse("IN_PROGRESS", "working", "t1"));
+
+		racing[0].finish(poll, new InquiryApiResponse("COMPLETED", "done", "t1"));
+
+		assertNotSame(poll, late[0]);
+		assertTrue(late[0].tryStart(), "the late session starts its own poller");
+		assertSame(late[0], racing[0].find("t1"));
+		assertNull(late[0].getLastFrame());
+		assertEquals(List.of(poll), ended);
+		racing[0].removeSession("s2");
+		assertTrue(late[0].isCancelled(), "the fresh poller still belongs to s2");
+	}
+
+	@Test
+	void pollerStopsWhenLastSubscriberLeaves() {
+		TrackedPoll poll = registry.subscribe("t1", "s1");
+		registry.subscribe("t1", "s2");
+
+		sessionRegistry.remove("s1");
+		assertFalse(poll.isCancelled());
+
+		sessionRegistry.remove("s2");
+		assertTrue(poll.isCancelled());
+		assertEquals(0, registry.getActiveCount());
+	}
+}
@@ -0,0 +1,138 @@
+package com.realtime.events.realtimeEvents.upstream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.status.JsonFieldStatusClassifier;
+import com.realtime.events.realtimeEvents.status.StatusClassifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchingStatusClientTest {
+
+	private final StatusClassifier classifier = new JsonFieldStatusClassifier(new ObjectMapper().getFactory(), "status",
+			Map.of("COMPLETED", "COMPLETED"));
+	private final StubUpstream upstream = new StubUpstream();
+	private final WebClient webClient = WebClient.create(upstream.baseUrl());
+	private final CircuitBreaker breaker = new CircuitBreaker(4, 4, 50, Duration.ofSeconds(10), Duration.ofSeconds(5),
+			System::nanoTime);
+	private final RetryBudget retryBudget = new RetryBudget(0.1, 10);
+	private final UpstreamGuard guard = new UpstreamGuard(breaker, retryBudget, Duration.ofMillis(300));
+
+	@AfterEach
+	void tearDown() {
+		upstream.close();
+	}
+
+	@Test
+	void coalescesDuePollsIntoOneRequestAndDemultiplexes() {
+		BatchingStatusClient client = new BatchingStatusClient(webClient, "/status/batch", classifier,
+				Duration.ofMillis(50), 200, guard);
+
+		List<String> trackingIds = IntStream.range(0, 100).mapToObj(i -> (i % 2 == 0 ? "done" : "t") + i).toList();
+		List<StatusPollResult> statuses = Flux.fromIterable(trackingIds)
+				.flatMapSequential(id -> client.fetchStatus(id, 0))
+				.collectList()
+				.block(Duration.ofSeconds(5));
+
+		assertNotNull(statuses);
+		for (int i = 0; i < trackingIds.size(); i++) {
+			assertEquals(i % 2 == 0 ? "COMPLETED" : "IN_PROGRESS", statuses.get(i).classification().status());
+		}
+		assertEquals(1, upstream.batchCalls());
+		assertEquals(0, upstream.statusCalls());
+		client.close();
+	}
+
+	@Test
+	void flushesEarlyWhenBatchSizeIsReached() {
+		BatchingStatusClient client = new BatchingStatusClient(webClient, "/status/batch", classifier,
+				Duration.ofSeconds(5), 10, guard);
+
+		Flux.range(0, 30)
+				.flatMap(i -> client.fetchStatus("t" + i, 0))
+				.collectList()
+				.block(Duration.ofSeconds(2));
+
+		assertEquals(3, upstream.batchCalls());
+		client.close();
+	}
+
+	@Test
+	void failsOnlyTheTrackingIdsMissingFromTheBatchResponse() {
+		BatchingStatusClient client = new BatchingStatusClient(webClient, "/status/batch", classifier,
+				Duration.ofMillis(20), 200, guard);
+		upstream.markUnknown("missing");
+
+		StepVerifier.create(client.fetchStatus("missing", 0))
+				.expectErrorMessage("No status returned for trackingId: missing")
+				.verify(Duration.ofSeconds(2));
+		StepVerifier.create(client.fetchStatus("done-present", 0))
+				.expectNextMatches(result -> result.classification().isTerminal())
+				.verifyComplete();
+		client.close();
+	}
+
+	@Test
+	void aFailedBatchRequestCountsOnceTowardsTheBreakerAndTheBudget() {
+		StubUpstream stopped = new StubUpstream();
+		String baseUrl = stopped.baseUrl();
+		stopped.close();
+		BatchingStatusClient client = new BatchingStatusClient(WebClient.create(baseUrl), "/status/batch", classifier,
+				Duration.ofMillis(50), 200, guard);
+
+		List<StatusPollResult> results = Flux.range(0, 30)
+				.flatMap(i -> client.fetchStatus("t" + i, 0))
+				.collectList()
+				.block(Duration.ofSeconds(10));
+
+		assertNotNull(results);
+		assertEquals(30, results.size());
+		assertTrue(results.stream().allMatch(StatusPollResult::isDeferred));
+		// Thirty failures would have opened it; one call is too few to judge
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+		assertEquals(1, retryBudget.getRetryCount());
+		client.close();
+	}
+
+	@Test
+	void perIdClientCallsTheStatusApiDirectly() {
+		PerIdStatusClient client = new PerIdStatusClient(webClient, "/status/{trackingId}", classifier);
+
+		StepVerifier.create(client.fetchStatus("t1", 0))
+				.expectNextMatches(result -> result.classification().status().equals("IN_PROGRESS") && result.retryAfter() == null)
+				.verifyComplete();
+		assertEquals(1, upstream.statusCalls());
+		assertEquals(0, upstream.batchCalls());
+	}
+
+	@Test
+	void throttledStatusCarriesRetryAfterInsteadOfFailing() {
+		PerIdStatusClient client = new PerIdStatusClient(webClient, "/status/{trackingId}", classifier);
+
+		StepVerifier.create(client.fetchStatus("busy1", 0))
+				.expectNextMatches(result -> result.isThrottled() && result.retryAfter().equals(Duration.ofSeconds(7)))
+				.verifyComplete();
+	}
+
+	@Test
+	void retryAfterAcceptsSecondsAndHttpDates() {
+		Clock clock = Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+		assertEquals(Duration.ofSeconds(120), RetryAfter.parse("120", clock));
+		assertEquals(Duration.ofSeconds(30), RetryAfter.parse("Wed, 01 Jan 2025 00:00:30 GMT", clock));
+		assertNull(RetryAfter.parse("Tue, 31 Dec 2024 23:59:00 GMT", clock));
+		assertNull(RetryAfter.parse("soon", clock));
+	}
+}
@@ -0,0 +1,40 @@
+package com.realtime.events.realtimeEvents.upstream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.status.JsonFieldStatusClassifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerIdStatusClientTest {
+
+	private final StubUpstream upstream = new StubUpstream();
+	private final PerIdStatusClient client = new PerIdStatusClient(WebClient.create(upstream.baseUrl()), "/status/{trackingId}",
+			new JsonFieldStatusClassifier(new ObjectMapper().getFactory(), "status", Map.of("COMPLETED", "COMPLETED")));
+
+	@AfterEach
+	void tearDown() {
+		upstream.close();
+	}
+
+	@Test
+	void repeatsThePollConditionallyAndSkipsTheBodyOn304() {
+		StatusPollResult first = client.fetchStatus("t1", 0).block();
+		assertNotNull(first);
+		assertEquals("IN_PROGRESS", first.classification().status());
+		assertNotNull(first.etag());
+		assertTrue(first.bodyBytes() > 0);
+
+		StatusPollResult second = client.fetchStatus("t1", 1, first.etag()).block();
+		assertNotNull(second);
+		assertTrue(second.isNotModified());
+		assertFalse(second.isThrottled());
+		assertNull(second.classification());
+		assertEquals(first.etag(), second.etag());
+		assertEquals(2, upstream.statusCalls());
+	}
+}
@@ -0,0 +1,178 @@
+package com.realtime.events.realtimeEvents.upstream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.events.realtimeEvents.status.JsonFieldStatusClassifier;
+import com.realtime.events.realtimeEvents.status.StatusClassification;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.realtime.events.realtimeEvents.upstream.CircuitBreaker.Permission.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilientStatusClientTest {
+
+	private static final Duration RETRY_DELAY = Duration.ofMillis(300);
+
+	private final AtomicLong clock = new AtomicLong();
+	private final CircuitBreaker breaker = new CircuitBreaker(4, 4, 50, Duration.ofSeconds(10), Duration.ofSeconds(5), clock::get);
+
+	@Test
+	void breakerOpensAtTheFailureRateAndClosesAfterASuccessfulProbe() {
+		breaker.onSuccess(CALL);
+		breaker.onFailure(CALL);
+		breaker.onSuccess(CALL);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "too few calls to judge");
+		breaker.onFailure(CALL);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+		assertEquals(REFUSED, breaker.tryAcquirePermission());
+		assertEquals(Duration.ofSeconds(10), breaker.getRetryDelay());
+
+		clock.addAndGet(Duration.ofSeconds(10).toNanos());
+		assertEquals(PROBE, breaker.tryAcquirePermission(), "one probe once the open period is over");
+		assertEquals(REFUSED, breaker.tryAcquirePermission());
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		clock.addAndGet(Duration.ofSeconds(2).toNanos());
+		assertEquals(Duration.ofSeconds(3), breaker.getRetryDelay(), "refused calls wait for the probe to answer");
+
+		breaker.onFailure(PROBE);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		clock.addAndGet(Duration.ofSeconds(10).toNanos());
+		assertEquals(PROBE, breaker.tryAcquirePermission());
+		breaker.onSuccess(PROBE);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+		assertEquals(2, breaker.getOpenedCount());
+		assertEquals(2, breaker.getRejectedCount());
+	}
+
+	@Test
+	void onlyTheProbeDecidesAHalfOpenBreaker() {
+		CircuitBreaker.Permission slow = breaker.tryAcquirePermission();
+		CircuitBreaker.Permission cancelled = breaker.tryAcquirePermission();
+		for (int i = 0; i < 4; i++) {
+			breaker.onFailure(CALL);
+		}
+		clock.addAndGet(Duration.ofSeconds(10).toNanos());
+		assertEquals(PROBE, breaker.tryAcquirePermission());
+
+		// Calls let through while closed finish during the probe
+		breaker.onSuccess(slow);
+		breaker.onCancel(cancelled);
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertEquals(REFUSED, breaker.tryAcquirePermission(), "the probe is still out");
+
+		breaker.onFailure(PROBE);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+	}
+
+	@Test
+	void retryBudgetRefillsOnlyByTheRatioOfCalls() {
+		RetryBudget budget = new RetryBudget(0.25, 2);
+
+		assertTrue(budget.tryRetry());
+		assertTrue(budget.tryRetry());
+		assertFalse(budget.tryRetry());
+		for (int i = 0; i < 3; i++) {
+			budget.onCall();
+		}
+		assertFalse(budget.tryRetry());
+		budget.onCall();
+		assertTrue(budget.tryRetry());
+		assertEquals(3, budget.getRetryCount());
+		assertEquals(2, budget.getExhaustedCount());
+	}
+
+	@Test
+	void transientFailuresAreDeferredWhileTheBudgetLastsAndClientErrorsStillFail() {
+		AtomicInteger calls = new AtomicInteger();
+		UpstreamStatusClient failing = (trackingId, attemptIndex, etag) -> {
+			calls.incrementAndGet();
+			HttpStatus status = trackingId.startsWith("missing") ? HttpStatus.NOT_FOUND : HttpStatus.BAD_GATEWAY;
+			return Mono.error(WebClientResponseException.create(status.value(), status.name(), HttpHeaders.EMPTY, null, null));
+		};
+		CircuitBreaker lenient = new CircuitBreaker(100, 100, 100, Duration.ofSeconds(10), Duration.ofSeconds(5), clock::get);
+		ResilientStatusClient client = new ResilientStatusClient(failing,
+				new UpstreamGuard(lenient, new RetryBudget(0, 1), RETRY_DELAY));
+
+		StepVerifier.create(client.fetchStatus("t1", 0))
+				.assertNext(result -> {
+					assertTrue(result.isDeferred());
+					assertEquals(RETRY_DELAY, result.retryAfter());
+				})
+				.verifyComplete();
+		StepVerifier.create(client.fetchStatus("t1", 0))
+				.expectError(WebClientResponseException.BadGateway.class)
+				.verify();
+		StepVerifier.create(client.fetchStatus("missing", 0))
+				.expectError(WebClientResponseException.NotFound.class)
+				.verify();
+		assertEquals(3, calls.get());
+	}
+
+	@Test
+	void openBreakerDefersEveryPollWithoutCallingUpstream() {
+		AtomicInteger calls = new AtomicInteger();
+		StatusPollResult ok = new StatusPollResult(new StatusClassification(StatusClassification.IN_PROGRESS, "RUNNING"), null);
+		UpstreamStatusClient counting = (trackingId, attemptIndex, etag) -> {
+			calls.incrementAndGet();
+			return Mono.just(ok);
+		};
+		ResilientStatusClient client = new ResilientStatusClient(counting,
+				new UpstreamGuard(breaker, new RetryBudget(0.1, 10), RETRY_DELAY));
+		for (int i = 0; i < 4; i++) {
+			breaker.onFailure(CALL);
+		}
+
+		StatusPollResult paused = client.fetchStatus("t1", 3).block();
+		assertNotNull(paused);
+		assertTrue(paused.isPaused());
+		assertEquals(Duration.ofSeconds(10), paused.retryAfter());
+		assertEquals(0, calls.get());
+
+		clock.addAndGet(Duration.ofSeconds(10).toNanos());
+		assertSame(ok, client.fetchStatus("t1", 3).block());
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	void closingTheWrapperClosesTheBatcher() throws Exception {
+		StubUpstream upstream = new StubUpstream();
+		BatchingStatusClient batching = new BatchingStatusClient(WebClient.create(upstream.baseUrl()), "/status/batch",
+				new JsonFieldStatusClassifier(new ObjectMapper().getFactory(), "status", Map.of()), Duration.ofMillis(20), 10,
+				new UpstreamGuard(breaker, new RetryBudget(0.1, 10), RETRY_DELAY));
+		ResilientStatusClient client = new ResilientStatusClient(batching,
+				new UpstreamGuard(breaker, new RetryBudget(0.1, 10), RETRY_DELAY));
+
+		try (upstream) {
+			assertNotNull(client.fetchStatus("t1", 0).block(Duration.ofSeconds(5)));
+			client.close();
+			assertThrows(Exception.class, () -> batching.fetchStatus("t2", 0).block(Duration.ofSeconds(5)));
+		}
+	}
+
+	@Test
+	void unreachableUpstreamIsTransient() {
+		StubUpstream stopped = new StubUpstream();
+		String baseUrl = stopped.baseUrl();
+		stopped.close();
+		PerIdStatusClient perId = new PerIdStatusClient(WebClient.create(baseUrl), "/status/{trackingId}",
+				new JsonFieldStatusClassifier(new ObjectMapper().getFactory(), "status", Map.of()));
+		ResilientStatusClient client = new ResilientStatusClient(perId,
+				new UpstreamGuard(breaker, new RetryBudget(0.1, 10), RETRY_DELAY));
+
+		StatusPollResult result = client.fetchStatus("t1", 0).block(Duration.ofSeconds(10));
+
+		assertNotNull(result);
+		assertTrue(result.isDeferred());
+	}
+}
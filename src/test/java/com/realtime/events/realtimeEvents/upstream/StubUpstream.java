@@ -0,0 +1,96 @@
+package com.realtime.events.realtimeEvents.upstream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the upstream status API. TrackingIds starting with {@code done} report
+ * COMPLETED, every other one IN_PROGRESS, except the ones registered as unknown, which are
+ * left out of batch responses. TrackingIds starting with {@code busy} are answered with 503
+ * and {@code Retry-After: 7}. Per-id responses carry an {@code ETag} and a matching
+ * {@code If-None-Match} is answered with 304. {@code POST /start} acknowledges any process.
+ */
+public class StubUpstream implements AutoCloseable {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final AtomicInteger batchCalls = new AtomicInteger();
+	private final AtomicInteger statusCalls = new AtomicInteger();
+	private final Set<String> unknownIds = ConcurrentHashMap.newKeySet();
+	private final DisposableServer server;
+
+	public StubUpstream() {
+		server = HttpServer.create()
+				.host("localhost")
+				.port(0)
+				.route(routes -> routes
+						.post("/start", (request, response) -> response.header("Content-Type", "application/json")
+								.sendString(Mono.just("{\"ack\":true}")))
+						.get("/status/{trackingId}", (request, response) -> {
+							statusCalls.incrementAndGet();
+							if (request.param("trackingId").startsWith("busy")) {
+								return response.status(503).header("Retry-After", "7").send();
+							}
+							String body = status(request.param("trackingId")).toString();
+							String etag = "\"" + Integer.toHexString(body.hashCode()) + "\"";
+							if (etag.equals(request.requestHeaders().get("If-None-Match"))) {
+								return response.status(304).header("ETag", etag).send();
+							}
+							return response.header("Content-Type", "application/json")
+									.header("ETag", etag)
+									.sendString(Mono.just(body));
+						})
+						.post("/status/batch", (request, response) -> response.header("Content-Type", "application/json")
+								.sendString(request.receive().aggregate().asString().map(this::batch))))
+				.bindNow();
+	}
+
+	private String batch(String body) {
+		batchCalls.incrementAndGet();
+		try {
+			ObjectNode result = objectMapper.createObjectNode();
+			for (JsonNode id : objectMapper.readTree(body).get("trackingIds")) {
+				if (!unknownIds.contains(id.asText())) {
+					result.set(id.asText(), status(id.asText()));
+				}
+			}
+			return result.toString();
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private ObjectNode status(String trackingId) {
+		return objectMapper.createObjectNode()
+				.put("trackingId", trackingId)
+				.put("status", trackingId.startsWith("done") ? "COMPLETED" : "IN_PROGRESS");
+	}
+
+	public String baseUrl() {
+		return "http://localhost:" + server.port();
+	}
+
+	void markUnknown(String trackingId) {
+		unknownIds.add(trackingId);
+	}
+
+	int batchCalls() {
+		return batchCalls.get();
+	}
+
+	int statusCalls() {
+		return statusCalls.get();
+	}
+
+	@Override
+	public void close() {
+		server.disposeNow();
+	}
+}